@@ -0,0 +1,18 @@
+package com.acmeair.reactive;
+
+import com.acmeair.service.FlightSearchValidatorService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+@SpringBootApplication
+public class ReactiveSearchApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveSearchApplication.class, args);
+    }
+
+    @Bean
+    public FlightSearchValidatorService flightSearchValidatorService() {
+        return new FlightSearchValidatorService();
+    }
+}
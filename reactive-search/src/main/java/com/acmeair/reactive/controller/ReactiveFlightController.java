@@ -0,0 +1,111 @@
+package com.acmeair.reactive.controller;
+
+import com.acmeair.dto.FlightResponseDto;
+import com.acmeair.dto.FlightSearchResponse;
+import com.acmeair.model.Flight;
+import com.acmeair.model.FlightType;
+import com.acmeair.reactive.service.ReactiveFlightService;
+import com.acmeair.reactive.service.ReactiveFlightService.SearchQuery;
+import com.acmeair.service.FlightSearchValidatorService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/flights")
+@Validated
+public class ReactiveFlightController {
+    private final ReactiveFlightService flightService;
+    private final FlightSearchValidatorService flightSearchValidatorService;
+
+    public ReactiveFlightController(ReactiveFlightService flightService,
+                                    FlightSearchValidatorService flightSearchValidatorService) {
+        this.flightService = flightService;
+        this.flightSearchValidatorService = flightSearchValidatorService;
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<FlightSearchResponse> searchFlights(
+            @RequestParam @NotNull(message = "Flight type is required") FlightType flightType,
+            @RequestParam @NotBlank(message = "Departure airport is required") String departureAirport,
+            @RequestParam @NotBlank(message = "Arrival airport is required") String arrivalAirport,
+            @RequestParam @NotNull(message = "Departure date is required")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnDate,
+            @RequestParam(required = false) @Positive(message = "Minimum price must be greater than 0") BigDecimal minPrice,
+            @RequestParam(required = false) @Positive(message = "Maximum price must be greater than 0") BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean directFlightsOnly,
+            @RequestParam(defaultValue = "0") @Min(value = 0, message = "Page number must be 0 or greater") int page,
+            @RequestParam(defaultValue = "10") @Min(value = 1, message = "Page size must be at least 1")
+            @Max(value = 100, message = "Page size cannot exceed 100") int size,
+            @RequestParam(defaultValue = "departureTime") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String returnCursor) {
+
+        SearchQuery query = validatedQuery(flightType, departureAirport, arrivalAirport, departureDate, returnDate,
+                minPrice, maxPrice, directFlightsOnly, page, size, sortBy, sortDirection);
+
+        if ("keyset".equalsIgnoreCase(pagination) || cursor != null || returnCursor != null) {
+            return flightService.scrollFlights(query, cursor, returnCursor);
+        } else if ("offset".equalsIgnoreCase(pagination)) {
+            return flightService.searchFlights(query);
+        }
+        throw new IllegalArgumentException("Invalid pagination mode: " + pagination + ". Valid modes are: offset, keyset");
+    }
+
+    // Every matching flight with no page cap, one JSON object per line as its row is read, outbound leg first. Same
+    // contract as the servlet application's /search/stream.
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FlightResponseDto> streamFlights(
+            @RequestParam @NotNull(message = "Flight type is required") FlightType flightType,
+            @RequestParam @NotBlank(message = "Departure airport is required") String departureAirport,
+            @RequestParam @NotBlank(message = "Arrival airport is required") String arrivalAirport,
+            @RequestParam @NotNull(message = "Departure date is required")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnDate,
+            @RequestParam(required = false) @Positive(message = "Minimum price must be greater than 0") BigDecimal minPrice,
+            @RequestParam(required = false) @Positive(message = "Maximum price must be greater than 0") BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean directFlightsOnly,
+            @RequestParam(defaultValue = "departureTime") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+
+        return flightService.streamFlights(validatedQuery(flightType, departureAirport, arrivalAirport, departureDate,
+                returnDate, minPrice, maxPrice, directFlightsOnly, 0, 0, sortBy, sortDirection));
+    }
+
+    @GetMapping(value = "/{flightId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<FlightResponseDto> getFlightDetails(
+            @PathVariable @NotBlank(message = "Flight ID is required") String flightId) {
+        return flightService.getFlightById(flightId);
+    }
+
+    private SearchQuery validatedQuery(FlightType flightType, String departureAirport, String arrivalAirport,
+                                       LocalDate departureDate, LocalDate returnDate,
+                                       BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
+                                       int page, int size, String sortBy, String sortDirection) {
+        departureAirport = Flight.normalizeAirportCode(departureAirport);
+        arrivalAirport = Flight.normalizeAirportCode(arrivalAirport);
+
+        flightSearchValidatorService.validateFlightSearchRequest(
+                flightType, departureAirport, arrivalAirport, departureDate,
+                returnDate, minPrice, maxPrice);
+
+        return new SearchQuery(flightType, departureAirport, arrivalAirport, departureDate, returnDate,
+                minPrice, maxPrice, directFlightsOnly, page, size, sortBy, sortDirection);
+    }
+}
@@ -0,0 +1,84 @@
+package com.acmeair.reactive.exception;
+
+import com.acmeair.dto.ErrorResponse;
+import com.acmeair.exception.FlightNotFoundException;
+import com.acmeair.exception.SearchTimeoutException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.stream.Collectors;
+
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    @ExceptionHandler(FlightNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleFlightNotFound(FlightNotFoundException e) {
+        ErrorResponse error = new ErrorResponse("Flight not found", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(SearchTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleSearchTimeout(SearchTimeoutException e) {
+        ErrorResponse error = new ErrorResponse("Search timed out", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException e) {
+        ErrorResponse error = new ErrorResponse("Invalid request", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException e) {
+        String message = e.getConstraintViolations().stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+
+        ErrorResponse error = new ErrorResponse("Validation failed", message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(MissingRequestValueException.class)
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingRequestValueException e) {
+        String message = String.format("Required parameter '%s' is missing", e.getName());
+        ErrorResponse error = new ErrorResponse("Missing required parameter", message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidInput(ServerWebInputException e) {
+        String message = e.getReason();
+        if (e.getCause() instanceof TypeMismatchException mismatch && mismatch.getRequiredType() != null) {
+            String name = e.getMethodParameter() != null ? e.getMethodParameter().getParameterName() : mismatch.getPropertyName();
+            message = String.format("Invalid value '%s' for parameter '%s'. Expected type: %s",
+                    mismatch.getValue(), name, mismatch.getRequiredType().getSimpleName());
+        }
+        ErrorResponse error = new ErrorResponse("Invalid parameter type", message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    // No body: the client accepts none of the media types an error response could be written in
+    @ExceptionHandler(NotAcceptableStatusException.class)
+    public ResponseEntity<Void> handleNotAcceptable(NotAcceptableStatusException e) {
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception e) {
+        log.error("Unexpected error", e);
+        ErrorResponse error = new ErrorResponse("Internal server error", "An unexpected error occurred");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+}
@@ -0,0 +1,148 @@
+package com.acmeair.reactive.repository;
+
+import com.acmeair.dto.FlightView;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Repository
+public class ReactiveFlightRepository {
+    private static final String COLUMNS = """
+            id, flight_number, origin, destination, departure_time, arrival_time, aircraft,
+            economy_price, premium_economy_price, business_price, first_class_price,
+            economy_available, premium_economy_available, business_available, first_class_available,
+            economy_total, premium_economy_total, business_total, first_class_total,
+            is_direct, stops, version""";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "departureTime", "departure_time",
+            "economyPrice", "economy_price",
+            "origin", "origin",
+            "destination", "destination");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveFlightRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public record SearchCriteria(String departureAirport, String arrivalAirport,
+                                 LocalDateTime startOfDay, LocalDateTime endOfDay,
+                                 BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly) {
+    }
+
+    // The flight id breaks ties in the same direction as the sort key, matching the servlet application's keyset
+    // scroll so a cursor issued by either application can be used with the other.
+    public Flux<FlightView> findPage(SearchCriteria criteria, Sort.Order order, long offset, int limit) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = "SELECT " + COLUMNS + " FROM flights WHERE " + where(criteria, bindings)
+                + orderBy(order) + " LIMIT " + limit + " OFFSET " + offset;
+        return query(sql, bindings);
+    }
+
+    public Flux<FlightView> findAll(SearchCriteria criteria, Sort.Order order) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = "SELECT " + COLUMNS + " FROM flights WHERE " + where(criteria, bindings) + orderBy(order);
+        return query(sql, bindings);
+    }
+
+    public Flux<FlightView> findAfter(SearchCriteria criteria, Sort.Order order, Object sortValue, String flightId,
+                                      int limit) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String where = where(criteria, bindings);
+        if (sortValue != null) {
+            String column = sortColumn(order);
+            String comparison = order.isDescending() ? "<" : ">";
+            where += " AND (" + column + " " + comparison + " :sortValue OR (" + column + " = :sortValue AND id "
+                    + comparison + " :flightId))";
+            bindings.put("sortValue", sortValue);
+            bindings.put("flightId", flightId);
+        }
+        String sql = "SELECT " + COLUMNS + " FROM flights WHERE " + where + orderBy(order) + " LIMIT " + limit;
+        return query(sql, bindings);
+    }
+
+    public Mono<Long> count(SearchCriteria criteria) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = "SELECT COUNT(*) AS total FROM flights WHERE " + where(criteria, bindings);
+        return prepare(sql, bindings).map(row -> ((Number) row.get("total")).longValue()).one();
+    }
+
+    public Mono<FlightView> findById(String id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM flights WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveFlightRepository::toView)
+                .one();
+    }
+
+    private Flux<FlightView> query(String sql, Map<String, Object> bindings) {
+        return prepare(sql, bindings).map(ReactiveFlightRepository::toView).all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec prepare(String sql, Map<String, Object> bindings) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private static String where(SearchCriteria criteria, Map<String, Object> bindings) {
+        StringBuilder where = new StringBuilder(
+                "origin = :departureAirport AND destination = :arrivalAirport"
+                        + " AND departure_time >= :startOfDay AND departure_time < :endOfDay");
+        bindings.put("departureAirport", criteria.departureAirport());
+        bindings.put("arrivalAirport", criteria.arrivalAirport());
+        bindings.put("startOfDay", criteria.startOfDay());
+        bindings.put("endOfDay", criteria.endOfDay());
+        if (criteria.minPrice() != null) {
+            where.append(" AND economy_price >= :minPrice");
+            bindings.put("minPrice", criteria.minPrice());
+        }
+        if (criteria.maxPrice() != null) {
+            where.append(" AND economy_price <= :maxPrice");
+            bindings.put("maxPrice", criteria.maxPrice());
+        }
+        if (Boolean.TRUE.equals(criteria.directFlightsOnly())) {
+            where.append(" AND is_direct = TRUE");
+        }
+        return where.toString();
+    }
+
+    private static String orderBy(Sort.Order order) {
+        String direction = order.isDescending() ? " DESC" : " ASC";
+        return " ORDER BY " + sortColumn(order) + direction + ", id" + direction;
+    }
+
+    private static String sortColumn(Sort.Order order) {
+        String column = SORT_COLUMNS.get(order.getProperty());
+        if (column == null) {
+            throw new IllegalArgumentException("Invalid sort field: " + order.getProperty());
+        }
+        return column;
+    }
+
+    private static FlightView toView(Readable row) {
+        return new FlightView(
+                row.get("id", String.class), row.get("flight_number", String.class),
+                row.get("origin", String.class), row.get("destination", String.class),
+                row.get("departure_time", LocalDateTime.class), row.get("arrival_time", LocalDateTime.class),
+                row.get("aircraft", String.class),
+                row.get("economy_price", BigDecimal.class), row.get("premium_economy_price", BigDecimal.class),
+                row.get("business_price", BigDecimal.class), row.get("first_class_price", BigDecimal.class),
+                row.get("economy_available", Integer.class), row.get("premium_economy_available", Integer.class),
+                row.get("business_available", Integer.class), row.get("first_class_available", Integer.class),
+                row.get("economy_total", Integer.class), row.get("premium_economy_total", Integer.class),
+                row.get("business_total", Integer.class), row.get("first_class_total", Integer.class),
+                Boolean.TRUE.equals(row.get("is_direct", Boolean.class)),
+                row.get("stops", Integer.class), row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.acmeair.reactive.security;
+
+import com.acmeair.dto.ErrorResponse;
+import com.acmeair.security.TokenDigest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Same X-API-Key contract as the servlet application, checked against the shared api_tokens table. Lookups are
+// cached briefly in both directions so the hot path never waits on the database.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ApiKeyWebFilter implements WebFilter {
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<TokenDigest, Boolean> tokens;
+
+    public ApiKeyWebFilter(DatabaseClient databaseClient, ObjectMapper objectMapper,
+                           @Value("${acme-air.security.token-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${acme-air.security.token-cache.ttl:5s}") Duration ttl) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+
+        String apiKey = exchange.getRequest().getHeaders().getFirst(API_KEY_HEADER);
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            return sendUnauthorizedResponse(exchange, "API key is required");
+        }
+
+        return isValidToken(apiKey).flatMap(valid -> valid
+                ? chain.filter(exchange)
+                : sendUnauthorizedResponse(exchange, "Invalid API key"));
+    }
+
+    private Mono<Boolean> isValidToken(String apiKey) {
+        TokenDigest digest = TokenDigest.of(apiKey);
+        return Mono.fromFuture(() -> tokens.get(digest, (key, executor) -> databaseClient
+                .sql("SELECT COUNT(*) AS matches FROM api_tokens WHERE token_hash = :tokenHash AND is_active = TRUE")
+                .bind("tokenHash", key.toBytes())
+                .map(row -> ((Number) row.get("matches")).longValue() > 0)
+                .one()
+                .defaultIfEmpty(false)
+                .toFuture()));
+    }
+
+    private Mono<Void> sendUnauthorizedResponse(ServerWebExchange exchange, String message) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse("Unauthorized", message));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+    }
+}
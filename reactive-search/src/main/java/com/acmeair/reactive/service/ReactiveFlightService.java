@@ -0,0 +1,177 @@
+package com.acmeair.reactive.service;
+
+import com.acmeair.dto.FlightResponseDto;
+import com.acmeair.dto.FlightSearchCursor;
+import com.acmeair.dto.FlightSearchResponse;
+import com.acmeair.dto.FlightView;
+import com.acmeair.exception.FlightNotFoundException;
+import com.acmeair.exception.SearchTimeoutException;
+import com.acmeair.model.FlightType;
+import com.acmeair.reactive.repository.ReactiveFlightRepository;
+import com.acmeair.reactive.repository.ReactiveFlightRepository.SearchCriteria;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class ReactiveFlightService {
+    private final ReactiveFlightRepository flightRepository;
+    private final Duration legTimeout;
+
+    public ReactiveFlightService(ReactiveFlightRepository flightRepository,
+                                 @Value("${acme-air.search.leg-timeout:5s}") Duration legTimeout) {
+        this.flightRepository = flightRepository;
+        this.legTimeout = legTimeout;
+    }
+
+    public record SearchQuery(FlightType flightType, String departureAirport, String arrivalAirport,
+                              LocalDate departureDate, LocalDate returnDate,
+                              BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
+                              int page, int size, String sortBy, String sortDirection) {
+
+        SearchCriteria outbound() {
+            return criteria(departureAirport, arrivalAirport, departureDate);
+        }
+
+        SearchCriteria inbound() {
+            return criteria(arrivalAirport, departureAirport, returnDate);
+        }
+
+        private SearchCriteria criteria(String origin, String destination, LocalDate date) {
+            return new SearchCriteria(origin, destination, date.atStartOfDay(), date.plusDays(1).atStartOfDay(),
+                    minPrice, maxPrice, directFlightsOnly);
+        }
+    }
+
+    // Both legs and the count query are subscribed together, so a return search costs one round trip of latency
+    public Mono<FlightSearchResponse> searchFlights(SearchQuery query) {
+        Sort.Order order = createOrder(query.sortBy(), query.sortDirection());
+        long offset = (long) query.page() * query.size();
+
+        Mono<List<FlightView>> outbound = leg(flightRepository.findPage(query.outbound(), order, offset, query.size())
+                .collectList(), "outbound");
+        Mono<Long> total = leg(flightRepository.count(query.outbound()), "outbound");
+        Mono<List<FlightView>> inbound = query.flightType() == FlightType.RETURN
+                ? leg(flightRepository.findPage(query.inbound(), order, offset, query.size()).collectList(), "return")
+                : Mono.just(List.of());
+
+        return Mono.zip(outbound, total, inbound).map(result -> {
+            int totalResults = result.getT2().intValue();
+            int totalPages = (int) Math.ceil((double) totalResults / query.size());
+            return new FlightSearchResponse(
+                    query.flightType(),
+                    result.getT1(),
+                    query.flightType() == FlightType.RETURN ? result.getT3() : null,
+                    totalResults,
+                    query.page(),
+                    query.size(),
+                    totalPages,
+                    query.page() == 0,
+                    query.page() + 1 >= totalPages);
+        });
+    }
+
+    public Mono<FlightSearchResponse> scrollFlights(SearchQuery query, String cursor, String returnCursor) {
+        Sort.Order order = createOrder(query.sortBy(), query.sortDirection());
+
+        Mono<List<FlightView>> outbound = leg(scroll(query.outbound(), order, query.size(), cursor), "outbound");
+        Mono<List<FlightView>> inbound = query.flightType() == FlightType.RETURN
+                ? leg(scroll(query.inbound(), order, query.size(), returnCursor), "return")
+                : Mono.just(List.of());
+
+        return Mono.zip(outbound, inbound).map(result -> {
+            List<FlightView> outboundRows = result.getT1();
+            List<FlightView> inboundRows = result.getT2();
+            boolean isReturn = query.flightType() == FlightType.RETURN;
+            return new FlightSearchResponse(
+                    query.flightType(),
+                    page(outboundRows, query.size()),
+                    isReturn ? page(inboundRows, query.size()) : null,
+                    query.size(),
+                    nextCursor(outboundRows, query.size(), order),
+                    isReturn ? nextCursor(inboundRows, query.size(), order) : null,
+                    cursor == null || cursor.isBlank(),
+                    outboundRows.size() <= query.size());
+        });
+    }
+
+    // Streams every matching flight of each leg, outbound first, as rows arrive from the database. The query's page
+    // and size are ignored, and the timeout applies to the gap between rows rather than to the whole stream.
+    public Flux<FlightResponseDto> streamFlights(SearchQuery query) {
+        Sort.Order order = createOrder(query.sortBy(), query.sortDirection());
+
+        Flux<FlightView> flights = flightRepository.findAll(query.outbound(), order);
+        if (query.flightType() == FlightType.RETURN) {
+            flights = flights.concatWith(flightRepository.findAll(query.inbound(), order));
+        }
+        return flights.map(FlightResponseDto::new)
+                .timeout(legTimeout, Mono.error(() -> new SearchTimeoutException(
+                        "No flight was streamed for " + legTimeout.toMillis() + " ms")));
+    }
+
+    public Mono<FlightResponseDto> getFlightById(String id) {
+        return flightRepository.findById(id)
+                .map(FlightResponseDto::new)
+                .switchIfEmpty(Mono.error(() -> new FlightNotFoundException("Flight with ID " + id + " does not exist")));
+    }
+
+    private Mono<List<FlightView>> scroll(SearchCriteria criteria, Sort.Order order, int size, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return flightRepository.findAfter(criteria, order, null, null, size + 1).collectList();
+        }
+        FlightSearchCursor decoded = FlightSearchCursor.decode(cursor);
+        if (!decoded.sortProperty().equals(order.getProperty()) || decoded.direction() != order.getDirection()) {
+            return Mono.error(new IllegalArgumentException("Cursor does not match the requested sort order"));
+        }
+        Map<String, Object> keys = decoded.toKeys();
+        return flightRepository.findAfter(criteria, order, keys.get(order.getProperty()), decoded.flightId(), size + 1)
+                .collectList();
+    }
+
+    private static List<FlightView> page(List<FlightView> rows, int size) {
+        return rows.size() > size ? rows.subList(0, size) : rows;
+    }
+
+    private static String nextCursor(List<FlightView> rows, int size, Sort.Order order) {
+        if (rows.size() <= size) {
+            return null;
+        }
+        FlightView last = rows.get(size - 1);
+        Object sortValue = switch (order.getProperty()) {
+            case "economyPrice" -> last.economyPrice();
+            case "origin" -> last.origin();
+            case "destination" -> last.destination();
+            default -> last.departureTime();
+        };
+        return FlightSearchCursor.of(order.getProperty(), order.getDirection(),
+                Map.of(order.getProperty(), sortValue, "id", last.id())).encode();
+    }
+
+    private <T> Mono<T> leg(Mono<T> leg, String legName) {
+        return leg.timeout(legTimeout)
+                .onErrorMap(TimeoutException.class, e -> new SearchTimeoutException("Searching " + legName
+                        + " flights took longer than " + legTimeout.toMillis() + " ms"));
+    }
+
+    private Sort.Order createOrder(String sortBy, String sortDirection) {
+        if ("price".equals(sortBy)) {
+            sortBy = "economyPrice";
+        }
+        if (sortBy == null || sortBy.trim().isEmpty()) {
+            sortBy = "departureTime";
+        }
+        if (!List.of("economyPrice", "departureTime", "origin", "destination").contains(sortBy)) {
+            throw new IllegalArgumentException("Invalid sort field: " + sortBy + ". Valid fields are: price, departureTime, origin, destination");
+        }
+        return "desc".equalsIgnoreCase(sortDirection) ? Sort.Order.desc(sortBy) : Sort.Order.asc(sortBy);
+    }
+}
@@ -0,0 +1,257 @@
+package com.acmeair.reactive.controller;
+
+import com.acmeair.dto.FlightResponseDto;
+import com.acmeair.dto.FlightSearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveFlightSearchComponentTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private static final String DEMO_API_KEY = "acme-air-demo-2025-secure-token-12345";
+    private static final String API_KEY_HEADER = "X-API-Key";
+    private static final LocalDate DEPARTURE = LocalDate.now(ZoneOffset.UTC).plusDays(30);
+    private static final LocalDate RETURN = DEPARTURE.plusDays(7);
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM flights WHERE id LIKE 'RX%'").then().block();
+        insertFlight("RX0001", "SYD", "MEL", DEPARTURE.atTime(6, 0), "199.99");
+        insertFlight("RX0002", "SYD", "MEL", DEPARTURE.atTime(9, 0), "149.99");
+        insertFlight("RX0003", "SYD", "MEL", DEPARTURE.atTime(12, 0), "249.99");
+        insertFlight("RX0004", "MEL", "SYD", RETURN.atTime(18, 0), "179.99");
+    }
+
+    private void insertFlight(String id, String origin, String destination, LocalDateTime departure, String price) {
+        databaseClient.sql("""
+                INSERT INTO flights (id, flight_number, origin, destination, departure_time, arrival_time, aircraft,
+                    economy_price, premium_economy_price, business_price, first_class_price,
+                    economy_available, premium_economy_available, business_available, first_class_available,
+                    economy_total, premium_economy_total, business_total, first_class_total, is_direct, stops, version)
+                VALUES (:id, :id, :origin, :destination, :departure, :arrival, 'Boeing 737-800',
+                    :price, 300.00, 600.00, 1000.00, 120, 24, 12, 4, 120, 24, 12, 4, TRUE, 0, 0)
+                """)
+                .bind("id", id)
+                .bind("origin", origin)
+                .bind("destination", destination)
+                .bind("departure", departure)
+                .bind("arrival", departure.plusMinutes(95))
+                .bind("price", new BigDecimal(price))
+                .then()
+                .block();
+    }
+
+    private String searchUri(String flightType, String extra) {
+        return searchUri("/api/v1/flights/search", flightType, extra);
+    }
+
+    private String searchUri(String path, String flightType, String extra) {
+        String uri = path + "?flightType=" + flightType
+                + "&departureAirport=SYD&arrivalAirport=MEL&departureDate=" + DEPARTURE;
+        if ("RETURN".equals(flightType)) {
+            uri += "&returnDate=" + RETURN;
+        }
+        return uri + extra;
+    }
+
+    @Test
+    void searchFlights_Success_ReturnsSamePageContractAsServletApi() {
+        FlightSearchResponse response = webTestClient.get()
+                .uri(searchUri("ONE_WAY", "&sortBy=price&size=2"))
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FlightSearchResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getOutboundFlights()).extracting(FlightResponseDto::getId)
+                .containsExactly("RX0002", "RX0001");
+        assertThat(response.getOutboundFlights().get(0).getSeats().getEconomy().getPrice())
+                .isEqualByComparingTo("149.99");
+        assertThat(response.getReturnFlights()).isNull();
+        assertThat(response.getTotalResults()).isEqualTo(3);
+        assertThat(response.getTotalPages()).isEqualTo(2);
+        assertThat(response.isFirst()).isTrue();
+        assertThat(response.isLast()).isFalse();
+    }
+
+    @Test
+    void searchFlights_Success_ReturnsBothLegsForReturnSearch() {
+        FlightSearchResponse response = webTestClient.get()
+                .uri(searchUri("RETURN", ""))
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FlightSearchResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getOutboundFlights()).extracting(FlightResponseDto::getId)
+                .containsExactly("RX0001", "RX0002", "RX0003");
+        assertThat(response.getReturnFlights()).extracting(FlightResponseDto::getId).containsExactly("RX0004");
+    }
+
+    @Test
+    void searchFlights_Success_FollowsKeysetCursor() {
+        FlightSearchResponse first = webTestClient.get()
+                .uri(searchUri("ONE_WAY", "&pagination=keyset&size=2"))
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FlightSearchResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(first).isNotNull();
+        assertThat(first.getOutboundFlights()).extracting(FlightResponseDto::getId).containsExactly("RX0001", "RX0002");
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(first.getTotalResults()).isNull();
+
+        FlightSearchResponse second = webTestClient.get()
+                .uri(searchUri("ONE_WAY", "&size=2&cursor=" + first.getNextCursor()))
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FlightSearchResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(second).isNotNull();
+        assertThat(second.getOutboundFlights()).extracting(FlightResponseDto::getId).containsExactly("RX0003");
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.isLast()).isTrue();
+    }
+
+    @Test
+    void streamFlights_Success_WritesOneFlightPerLine() {
+        List<FlightResponseDto> flights = webTestClient.get()
+                .uri(searchUri("/api/v1/flights/search/stream", "RETURN", ""))
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(FlightResponseDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(flights).extracting(FlightResponseDto::getId)
+                .containsExactly("RX0001", "RX0002", "RX0003", "RX0004");
+    }
+
+    @Test
+    void streamFlights_Success_WritesEveryFlightWithoutPageCap() {
+        for (int i = 10; i < 22; i++) {
+            insertFlight("RX00" + i, "SYD", "MEL", DEPARTURE.atTime(13, i), "99.99");
+        }
+
+        List<FlightResponseDto> flights = webTestClient.get()
+                .uri(searchUri("/api/v1/flights/search/stream", "ONE_WAY", "&size=5"))
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(FlightResponseDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(flights).hasSize(15);
+    }
+
+    @Test
+    void searchFlights_Failure_RejectsNdjsonOnPagedSearch() {
+        webTestClient.get()
+                .uri(searchUri("ONE_WAY", ""))
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isEqualTo(406);
+    }
+
+    @Test
+    void searchFlights_Failure_RejectsSameAirports() {
+        webTestClient.get()
+                .uri("/api/v1/flights/search?flightType=ONE_WAY&departureAirport=SYD&arrivalAirport=syd&departureDate="
+                        + DEPARTURE)
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid request")
+                .jsonPath("$.message").isEqualTo("Departure and arrival airports cannot be the same");
+    }
+
+    @Test
+    void searchFlights_Failure_RejectsMissingParameter() {
+        webTestClient.get()
+                .uri("/api/v1/flights/search?flightType=ONE_WAY&departureAirport=SYD&arrivalAirport=MEL")
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Missing required parameter");
+    }
+
+    @Test
+    void getFlightDetails_Success_ReturnsFlight() {
+        webTestClient.get()
+                .uri("/api/v1/flights/RX0003")
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("RX0003")
+                .jsonPath("$.direct").isEqualTo(true)
+                .jsonPath("$.totalSeats").isEqualTo(160)
+                .jsonPath("$.seats.economy.availableSeats").isEqualTo(120);
+    }
+
+    @Test
+    void getFlightDetails_Failure_ReturnsNotFound() {
+        webTestClient.get()
+                .uri("/api/v1/flights/NONEXISTENT")
+                .header(API_KEY_HEADER, DEMO_API_KEY)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Flight not found");
+    }
+
+    @Test
+    void getFlightDetails_Failure_RequiresApiKey() {
+        webTestClient.get()
+                .uri("/api/v1/flights/RX0003")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("API key is required");
+
+        webTestClient.get()
+                .uri("/api/v1/flights/RX0003")
+                .header(API_KEY_HEADER, "not-a-valid-key")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid API key");
+    }
+}
@@ -0,0 +1,99 @@
+package com.acmeair.benchmark;
+
+import com.acmeair.security.ApiKeyAuthenticationFilter;
+import com.acmeair.security.TokenDigest;
+import com.acmeair.service.ApiTokenIndex;
+import com.acmeair.service.ApiTokenService;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Runs the filter the way the security chain does for every request, against an index holding tokenCount keys.
+// Unknown keys are drawn from a small pool so they are answered by the negative cache after the first miss.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ApiKeyAuthenticationBenchmark extends BenchmarkApplication {
+    private static final int UNKNOWN_TOKENS = 64;
+
+    @Param({"1000", "100000"})
+    public int tokenCount;
+
+    private ApiKeyAuthenticationFilter filter;
+
+    @Override
+    protected void seed(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(tokenCount);
+        for (int i = 0; i < tokenCount; i++) {
+            rows.add(new Object[]{String.format("BT%08d", i), TokenDigest.of(token(i)).toBytes(), "Benchmark token", now, now});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO api_tokens (id, token_hash, description, created_time, is_active, last_modified)
+                VALUES (?, ?, ?, ?, TRUE, ?)
+                """, rows);
+    }
+
+    @Override
+    protected void prepare() {
+        bean(ApiTokenIndex.class).load();
+        filter = new ApiKeyAuthenticationFilter(bean(ApiTokenService.class));
+    }
+
+    @Benchmark
+    public int validKey() throws ServletException, IOException {
+        return authenticate(token(ThreadLocalRandom.current().nextInt(tokenCount)));
+    }
+
+    @Benchmark
+    public int unknownKey() throws ServletException, IOException {
+        return authenticate("unknown-" + ThreadLocalRandom.current().nextInt(UNKNOWN_TOKENS));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int validKeyContended() throws ServletException, IOException {
+        return authenticate(token(ThreadLocalRandom.current().nextInt(tokenCount)));
+    }
+
+    private int authenticate(String apiKey) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/flights/search");
+        request.addHeader("X-API-Key", apiKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static String token(int i) {
+        return "bench-token-" + i;
+    }
+}
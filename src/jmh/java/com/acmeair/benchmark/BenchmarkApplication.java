@@ -0,0 +1,59 @@
+package com.acmeair.benchmark;
+
+import com.acmeair.AcmeAirApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Boots the real application against a private in-memory H2 database for one benchmark trial. Subclasses seed
+// their synthetic data through JDBC once the Liquibase schema is in place and then look up the beans they measure.
+public abstract class BenchmarkApplication {
+    protected ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("server.port", 0);
+        properties.put("acme-air.ids.node-id", 0);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.acmeair", "WARN");
+        properties.putAll(properties());
+
+        // Passed as command-line arguments so they take precedence over application.yaml
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        context = new SpringApplicationBuilder(AcmeAirApplication.class).run(args);
+        seed(context.getBean(JdbcTemplate.class));
+        prepare();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    protected Map<String, Object> properties() {
+        return Map.of();
+    }
+
+    protected abstract void seed(JdbcTemplate jdbcTemplate);
+
+    protected abstract void prepare();
+
+    protected <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
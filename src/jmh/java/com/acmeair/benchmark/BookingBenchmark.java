@@ -0,0 +1,87 @@
+package com.acmeair.benchmark;
+
+import com.acmeair.model.Booking;
+import com.acmeair.model.FlightType;
+import com.acmeair.model.Passenger;
+import com.acmeair.model.SeatClass;
+import com.acmeair.service.BookingService;
+import com.acmeair.service.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Every booking made during an iteration is cancelled in the iteration teardown, so seats never run out no
+// matter how many iterations run. The contended variant sends every thread to the same flight row.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class BookingBenchmark extends BenchmarkApplication {
+    private static final int ECONOMY_SEATS = 54_000;
+
+    @Param({"0", "1000000"})
+    public int existingBookings;
+
+    private final Queue<String> bookingIds = new ConcurrentLinkedQueue<>();
+    private BookingService bookingService;
+    private SyntheticDataGenerator.Dataset dataset;
+    private Passenger passenger;
+
+    @Override
+    protected void seed(JdbcTemplate jdbcTemplate) {
+        dataset = new SyntheticDataGenerator(jdbcTemplate).generate(new SyntheticDataGenerator.Plan(
+                10, 1, 1, ECONOMY_SEATS, existingBookings, LocalDate.now(ZoneOffset.UTC).plusDays(1)));
+    }
+
+    @Override
+    protected void prepare() {
+        bookingService = bean(BookingService.class);
+        passenger = new Passenger(null, "Bench", "Mark", "bench.mark@example.com",
+                "+61400000000", "B1234567", LocalDate.of(1990, 1, 1));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cancelBookings() {
+        String bookingId;
+        while ((bookingId = bookingIds.poll()) != null) {
+            bookingService.cancelBooking(bookingId);
+        }
+    }
+
+    @Benchmark
+    public Booking createBooking() {
+        return book(dataset.flightId(ThreadLocalRandom.current().nextInt(dataset.flights())));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Booking createBookingContended() {
+        return book(dataset.flightId(0));
+    }
+
+    private Booking book(String flightId) {
+        Booking booking = bookingService.createBooking(FlightType.ONE_WAY, flightId, null, SeatClass.ECONOMY, passenger);
+        bookingIds.add(booking.getId());
+        return booking;
+    }
+}
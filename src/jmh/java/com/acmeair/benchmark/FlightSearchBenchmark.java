@@ -0,0 +1,88 @@
+package com.acmeair.benchmark;
+
+import com.acmeair.dto.FlightSearchResponse;
+import com.acmeair.model.FlightType;
+import com.acmeair.service.FlightSearchIndex;
+import com.acmeair.service.FlightService;
+import com.acmeair.service.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FlightSearchBenchmark extends BenchmarkApplication {
+
+    // 10 airports over 30 days, so about 10k and 1M flights
+    @Param({"4", "370"})
+    public int flightsPerRoutePerDay;
+
+    @Param({"false", "true"})
+    public boolean inMemoryIndex;
+
+    private FlightService flightService;
+    private SyntheticDataGenerator.Dataset dataset;
+
+    @Override
+    protected Map<String, Object> properties() {
+        // Repeated identical searches would otherwise be answered by the result cache and never reach the query
+        return Map.of("acme-air.search.in-memory-index.enabled", inMemoryIndex,
+                "acme-air.search.result-cache.enabled", false);
+    }
+
+    @Override
+    protected void seed(JdbcTemplate jdbcTemplate) {
+        dataset = new SyntheticDataGenerator(jdbcTemplate).generate(new SyntheticDataGenerator.Plan(
+                10, 30, flightsPerRoutePerDay, 120, 0, LocalDate.now(ZoneOffset.UTC).plusDays(1)));
+    }
+
+    @Override
+    protected void prepare() {
+        bean(FlightSearchIndex.class).reload();
+        flightService = bean(FlightService.class);
+    }
+
+    @Benchmark
+    public FlightSearchResponse searchOneWay() {
+        return search(FlightType.ONE_WAY);
+    }
+
+    @Benchmark
+    public FlightSearchResponse searchReturn() {
+        return search(FlightType.RETURN);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public FlightSearchResponse searchOneWayContended() {
+        return search(FlightType.ONE_WAY);
+    }
+
+    private FlightSearchResponse search(FlightType flightType) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int route = random.nextInt(dataset.routes());
+        LocalDate departureDate = dataset.firstDay().plusDays(random.nextInt(dataset.days() - 1));
+        return flightService.searchFlights(flightType, dataset.origin(route), dataset.destination(route),
+                departureDate, flightType == FlightType.RETURN ? departureDate.plusDays(1) : null,
+                null, null, null, 0, 10, "economyPrice", "asc");
+    }
+}
@@ -0,0 +1,72 @@
+package com.acmeair.benchmark;
+
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import com.acmeair.service.FlightService;
+import com.acmeair.service.SeatAllocationService;
+import com.acmeair.service.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Each operation assigns a seat and gives it straight back, so the seat maps stay at a steady occupancy. Every
+// seat map is loaded from the database during setup, so only the in-memory allocation is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SeatAllocationBenchmark extends BenchmarkApplication {
+
+    private SeatAllocationService seatAllocationService;
+    private Flight[] flights;
+    private SyntheticDataGenerator.Dataset dataset;
+
+    @Override
+    protected void seed(JdbcTemplate jdbcTemplate) {
+        dataset = new SyntheticDataGenerator(jdbcTemplate).generate(new SyntheticDataGenerator.Plan(
+                10, 12, 1, 120, 0, LocalDate.now(ZoneOffset.UTC).plusDays(1)));
+    }
+
+    @Override
+    protected void prepare() {
+        seatAllocationService = bean(SeatAllocationService.class);
+        FlightService flightService = bean(FlightService.class);
+        flights = new Flight[dataset.flights()];
+        for (int i = 0; i < flights.length; i++) {
+            flights[i] = flightService.getFlightById(dataset.flightId(i));
+            allocateAndRelease(flights[i]);
+        }
+    }
+
+    @Benchmark
+    public String allocateSeat() {
+        return allocateAndRelease(flights[ThreadLocalRandom.current().nextInt(flights.length)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String allocateSeatContended() {
+        return allocateAndRelease(flights[0]);
+    }
+
+    private String allocateAndRelease(Flight flight) {
+        String seat = seatAllocationService.allocateSeat(flight, SeatClass.ECONOMY);
+        seatAllocationService.releaseSeat(flight.getId(), seat);
+        return seat;
+    }
+}
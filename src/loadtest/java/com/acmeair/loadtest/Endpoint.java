@@ -0,0 +1,34 @@
+package com.acmeair.loadtest;
+
+enum Endpoint {
+    SEARCH("search", "GET /api/v1/flights/search"),
+    FLIGHT_DETAILS("flight", "GET /api/v1/flights/{id}"),
+    BOOKING_CREATE("create", "POST /api/v1/bookings"),
+    BOOKING_UPDATE("update", "PUT /api/v1/bookings/{id}/passenger"),
+    BOOKING_CANCEL("cancel", "DELETE /api/v1/bookings/{id}");
+
+    private final String key;
+    private final String description;
+
+    Endpoint(String key, String description) {
+        this.key = key;
+        this.description = description;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String description() {
+        return description;
+    }
+
+    static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in load mix: " + key);
+    }
+}
@@ -0,0 +1,54 @@
+package com.acmeair.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class EndpointStats {
+    static final int IO_ERROR = 0;
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Recorder latencies = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    void record(int status, long latencyNanos) {
+        latencies.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    // Starts a new measurement interval, returning what was recorded since the previous one
+    Snapshot reset() {
+        Histogram histogram = latencies.getIntervalHistogram();
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> {
+            long value = count.sumThenReset();
+            if (value > 0) {
+                counts.put(status, value);
+            }
+        });
+        return new Snapshot(histogram, counts);
+    }
+
+    record Snapshot(Histogram histogram, Map<Integer, Long> statuses) {
+        long requests() {
+            return histogram.getTotalCount();
+        }
+
+        long errors() {
+            return statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+
+        double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+    }
+}
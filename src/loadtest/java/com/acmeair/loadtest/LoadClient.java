@@ -0,0 +1,130 @@
+package com.acmeair.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// One simulated user. With a target rate each request has an intended start time and latency is measured from
+// that time, so a stalled server shows up in the percentiles instead of silently lowering the request rate.
+final class LoadClient implements Runnable {
+    private static final String API_KEY_HEADER = "X-API-Key";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final LoadHarness.Settings settings;
+    private final LoadData data;
+    private final Map<Endpoint, EndpointStats> stats;
+    private final long deadlineNanos;
+    private final Deque<String> bookingIds = new ArrayDeque<>();
+
+    LoadClient(HttpClient httpClient, String baseUrl, LoadHarness.Settings settings, LoadData data,
+               Map<Endpoint, EndpointStats> stats, long deadlineNanos) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.data = data;
+        this.stats = stats;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public void run() {
+        long intervalNanos = settings.intervalNanosPerClient();
+        long intendedStart = System.nanoTime() + ThreadLocalRandom.current().nextLong(Math.max(intervalNanos, 1));
+        while (!Thread.currentThread().isInterrupted()) {
+            long start = intervalNanos > 0 ? intendedStart : System.nanoTime();
+            if (start >= deadlineNanos) {
+                return;
+            }
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(intendedStart - System.nanoTime());
+                intendedStart += intervalNanos;
+            }
+            Endpoint endpoint = pickEndpoint();
+            int status = execute(endpoint);
+            stats.get(endpoint).record(status, System.nanoTime() - start);
+        }
+    }
+
+    private Endpoint pickEndpoint() {
+        Endpoint endpoint = settings.mix().pick(ThreadLocalRandom.current());
+        if ((endpoint == Endpoint.BOOKING_UPDATE || endpoint == Endpoint.BOOKING_CANCEL) && bookingIds.isEmpty()) {
+            return Endpoint.BOOKING_CREATE;
+        }
+        return endpoint;
+    }
+
+    private int execute(Endpoint endpoint) {
+        try {
+            return switch (endpoint) {
+                case SEARCH -> search();
+                case FLIGHT_DETAILS -> send(get("/api/v1/flights/" + data.randomFlightId())).statusCode();
+                case BOOKING_CREATE -> createBooking();
+                case BOOKING_UPDATE -> send(json("/api/v1/bookings/" + bookingIds.peekLast() + "/passenger", "PUT",
+                        passengerJson("Updated"))).statusCode();
+                case BOOKING_CANCEL -> send(request("/api/v1/bookings/" + bookingIds.pollFirst()).DELETE()).statusCode();
+            };
+        } catch (IOException e) {
+            return EndpointStats.IO_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EndpointStats.IO_ERROR;
+        }
+    }
+
+    private int search() throws IOException, InterruptedException {
+        LoadData.Route route = data.randomRoute();
+        LocalDate departureDate = data.randomDepartureDate();
+        String query = "flightType=ONE_WAY&departureAirport=" + route.origin() + "&arrivalAirport=" + route.destination()
+                + "&departureDate=" + departureDate;
+        return send(get("/api/v1/flights/search?" + query)).statusCode();
+    }
+
+    private int createBooking() throws IOException, InterruptedException {
+        String body = "{\"flightType\":\"ONE_WAY\",\"flightId\":\"" + data.randomFlightId()
+                + "\",\"seatClass\":\"ECONOMY\",\"passenger\":" + passengerJson("Load") + "}";
+        HttpResponse<String> response = send(json("/api/v1/bookings", "POST", body));
+        if (response.statusCode() == 201) {
+            JsonNode booking = objectMapper.readTree(response.body());
+            bookingIds.addLast(booking.get("id").asText());
+        }
+        return response.statusCode();
+    }
+
+    private static String passengerJson(String firstName) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"Tester\",\"email\":\"load.tester@example.com\","
+                + "\"phoneNumber\":\"+61400000000\",\"passportNumber\":\"LT123456\",\"dateOfBirth\":\"1990-01-01\"}";
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder json(String path, String method, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(settings.requestTimeout())
+                .header(API_KEY_HEADER, settings.apiKey());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
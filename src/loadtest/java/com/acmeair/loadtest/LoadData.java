@@ -0,0 +1,43 @@
+package com.acmeair.loadtest;
+
+import com.acmeair.service.SyntheticDataGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class LoadData {
+    private static final int ECONOMY_SEATS = 600;
+
+    record Route(String origin, String destination) {}
+
+    private final SyntheticDataGenerator.Dataset dataset;
+
+    private LoadData(SyntheticDataGenerator.Dataset dataset) {
+        this.dataset = dataset;
+    }
+
+    static LoadData seed(JdbcTemplate jdbcTemplate, LoadHarness.Settings settings) {
+        return new LoadData(new SyntheticDataGenerator(jdbcTemplate).generate(new SyntheticDataGenerator.Plan(
+                settings.airports(), settings.days(), settings.flightsPerRouteAndDay(), ECONOMY_SEATS,
+                settings.bookings(), LocalDate.now(ZoneOffset.UTC).plusDays(1))));
+    }
+
+    int flightCount() {
+        return dataset.flights();
+    }
+
+    Route randomRoute() {
+        int route = ThreadLocalRandom.current().nextInt(dataset.routes());
+        return new Route(dataset.origin(route), dataset.destination(route));
+    }
+
+    LocalDate randomDepartureDate() {
+        return dataset.firstDay().plusDays(ThreadLocalRandom.current().nextInt(dataset.days()));
+    }
+
+    String randomFlightId() {
+        return dataset.flightId(ThreadLocalRandom.current().nextInt(dataset.flights()));
+    }
+}
@@ -0,0 +1,242 @@
+package com.acmeair.loadtest;
+
+import com.acmeair.AcmeAirApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+// Boots the application on a random port against a private in-memory database, drives it over HTTP from virtual
+// thread clients and reports latency percentiles per endpoint. Exits with status 1 when a configured limit is
+// exceeded so the run can gate a build.
+public final class LoadHarness {
+
+    record Mix(Endpoint[] endpoints, int[] cumulativeWeights) {
+        static Mix parse(String spec) {
+            Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Load mix entries must look like search=60, got: " + entry);
+                }
+                weights.put(Endpoint.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+            Endpoint[] endpoints = weights.keySet().toArray(Endpoint[]::new);
+            int[] cumulative = new int[endpoints.length];
+            int total = 0;
+            for (int i = 0; i < endpoints.length; i++) {
+                total += weights.get(endpoints[i]);
+                cumulative[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Load mix weights must add up to more than 0");
+            }
+            return new Mix(endpoints, cumulative);
+        }
+
+        Endpoint pick(RandomGenerator random) {
+            int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (value < cumulativeWeights[i]) {
+                    return endpoints[i];
+                }
+            }
+            return endpoints[endpoints.length - 1];
+        }
+    }
+
+    record Settings(int clients, Duration warmup, Duration duration, int targetRate, Mix mix, String mixSpec,
+                    String apiKey, Duration requestTimeout, int airports, int days, int flightsPerRouteAndDay, int bookings,
+                    String profiles, Path report, Duration maxP99, double maxErrorRate) {
+
+        static Settings fromSystemProperties() {
+            String maxP99 = System.getProperty("loadtest.max-p99");
+            String mix = System.getProperty("loadtest.mix", "search=60,flight=20,create=10,update=5,cancel=5");
+            return new Settings(
+                    Integer.getInteger("loadtest.clients", 64),
+                    duration("loadtest.warmup", "10s"),
+                    duration("loadtest.duration", "60s"),
+                    Integer.getInteger("loadtest.rate", 0),
+                    Mix.parse(mix),
+                    mix,
+                    System.getProperty("loadtest.api-key", "acme-air-demo-2025-secure-token-12345"),
+                    duration("loadtest.request-timeout", "10s"),
+                    Integer.getInteger("loadtest.airports", 6),
+                    Integer.getInteger("loadtest.days", 14),
+                    Integer.getInteger("loadtest.flights-per-route-day", 8),
+                    Integer.getInteger("loadtest.bookings", 10_000),
+                    System.getProperty("loadtest.profiles", ""),
+                    Path.of(System.getProperty("loadtest.report", "build/results/loadtest/report.json")),
+                    maxP99 == null ? null : DurationStyle.detectAndParse(maxP99),
+                    Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"))
+            );
+        }
+
+        // A target rate is shared evenly between clients; 0 runs closed loop with each client sending back to back
+        long intervalNanosPerClient() {
+            return targetRate > 0 ? TimeUnit.SECONDS.toNanos(clients) / targetRate : 0;
+        }
+
+        private static Duration duration(String property, String defaultValue) {
+            return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+        }
+    }
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        Map<String, Object> properties = new LinkedHashMap<>(Map.of(
+                "server.port", 0,
+                "acme-air.ids.node-id", 0,
+                "spring.datasource.url", "jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.main.banner-mode", "off",
+                "logging.level.root", "WARN",
+                "logging.level.com.acmeair", "WARN"
+        ));
+        if (!settings.profiles().isBlank()) {
+            properties.put("spring.profiles.active", settings.profiles());
+        }
+
+        // Passed as command-line arguments so they take precedence over application.yaml
+        String[] applicationArgs = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+
+        boolean passed;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AcmeAirApplication.class)
+                .run(applicationArgs)) {
+            LoadData data = LoadData.seed(context.getBean(JdbcTemplate.class), settings);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            boolean virtualThreads = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+            System.out.printf("Seeded %d flights, driving http://localhost:%d (%s threads) with %d clients for %s after %s warmup%n",
+                    data.flightCount(), port, virtualThreads ? "virtual" : "platform", settings.clients(),
+                    settings.duration(), settings.warmup());
+
+            Map<Endpoint, EndpointStats.Snapshot> results = run(settings, data, "http://localhost:" + port);
+            passed = report(settings, virtualThreads, results);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static Map<Endpoint, EndpointStats.Snapshot> run(Settings settings, LoadData data, String baseUrl)
+            throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        long deadline = System.nanoTime() + settings.warmup().plus(settings.duration()).toNanos();
+        Map<Endpoint, EndpointStats.Snapshot> results = new EnumMap<>(Endpoint.class);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(settings.requestTimeout())
+                     .build()) {
+            for (int i = 0; i < settings.clients(); i++) {
+                clients.submit(new LoadClient(httpClient, baseUrl, settings, data, stats, deadline));
+            }
+
+            Thread.sleep(settings.warmup());
+            stats.values().forEach(EndpointStats::reset);
+            long measureStart = System.nanoTime();
+            long remaining = deadline - measureStart;
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            stats.forEach((endpoint, endpointStats) -> results.put(endpoint, endpointStats.reset()));
+            clients.shutdownNow();
+        }
+        return results;
+    }
+
+    private static boolean report(Settings settings, boolean virtualThreads,
+                                  Map<Endpoint, EndpointStats.Snapshot> results) throws IOException {
+        double seconds = settings.duration().toNanos() / 1_000_000_000.0;
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        System.out.printf("%n%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointStats.Snapshot> entry : results.entrySet()) {
+            Endpoint endpoint = entry.getKey();
+            EndpointStats.Snapshot snapshot = entry.getValue();
+            if (snapshot.requests() == 0) {
+                continue;
+            }
+            totalRequests += snapshot.requests();
+            totalErrors += snapshot.errors();
+            double maxMillis = snapshot.histogram().getMaxValue() / 1_000_000.0;
+            System.out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.description(), snapshot.requests(), snapshot.errors(), snapshot.requests() / seconds,
+                    snapshot.percentileMillis(50), snapshot.percentileMillis(90), snapshot.percentileMillis(99),
+                    snapshot.percentileMillis(99.9), maxMillis);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", snapshot.requests());
+            summary.put("errors", snapshot.errors());
+            summary.put("throughputPerSecond", snapshot.requests() / seconds);
+            summary.put("statuses", snapshot.statuses());
+            summary.put("p50Millis", snapshot.percentileMillis(50));
+            summary.put("p90Millis", snapshot.percentileMillis(90));
+            summary.put("p99Millis", snapshot.percentileMillis(99));
+            summary.put("p999Millis", snapshot.percentileMillis(99.9));
+            summary.put("maxMillis", maxMillis);
+            endpoints.put(endpoint.key(), summary);
+
+            if (settings.maxP99() != null && snapshot.percentileMillis(99) > settings.maxP99().toNanos() / 1_000_000.0) {
+                violations.add(endpoint.description() + " p99 " + snapshot.percentileMillis(99) + " ms exceeds "
+                        + settings.maxP99().toMillis() + " ms");
+            }
+        }
+
+        double errorRate = totalRequests == 0 ? 1.0 : (double) totalErrors / totalRequests;
+        if (errorRate > settings.maxErrorRate()) {
+            violations.add(String.format("Error rate %.4f exceeds %.4f", errorRate, settings.maxErrorRate()));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profiles", settings.profiles());
+        report.put("virtualThreads", virtualThreads);
+        report.put("clients", settings.clients());
+        report.put("targetRate", settings.targetRate());
+        report.put("mix", settings.mixSpec());
+        report.put("warmupSeconds", settings.warmup().toSeconds());
+        report.put("durationSeconds", settings.duration().toSeconds());
+        report.put("requests", totalRequests);
+        report.put("errorRate", errorRate);
+        report.put("throughputPerSecond", totalRequests / seconds);
+        report.put("endpoints", endpoints);
+        report.put("violations", violations);
+
+        Path path = settings.report();
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+        System.out.printf("%nTotal %d requests, %.1f req/s, error rate %.4f. Report written to %s%n",
+                totalRequests, totalRequests / seconds, errorRate, path.toAbsolutePath());
+        violations.forEach(violation -> System.out.println("FAILED: " + violation));
+        return violations.isEmpty();
+    }
+}
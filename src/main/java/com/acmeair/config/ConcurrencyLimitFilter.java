@@ -0,0 +1,86 @@
+package com.acmeair.config;
+
+import com.acmeair.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caps the number of API requests in flight. On virtual threads Tomcat no longer bounds concurrency, so without this
+// every request would queue inside Hikari for up to its connection timeout; here excess requests wait briefly for a
+// permit and are then shed with 503 and Retry-After while the ones admitted keep their latency.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutNanos;
+    private final LongAdder rejected = new LongAdder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ConcurrencyLimitFilter(int maxInFlight, Duration acquireTimeout) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            sendOverloadedResponse(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    private void sendOverloadedResponse(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setContentType("application/json");
+        ErrorResponse error = new ErrorResponse("Service unavailable", "Too many concurrent requests, retry later");
+        response.getWriter().write(objectMapper.writeValueAsString(error));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("acmeair.requests.in-flight", this, ConcurrencyLimitFilter::inFlight)
+                .description("API requests holding a concurrency permit")
+                .register(registry);
+        Gauge.builder("acmeair.requests.in-flight.limit", () -> maxInFlight)
+                .register(registry);
+        FunctionCounter.builder("acmeair.requests.rejected", rejected, LongAdder::doubleValue)
+                .description("API requests shed with 503 after waiting for a concurrency permit")
+                .register(registry);
+    }
+}
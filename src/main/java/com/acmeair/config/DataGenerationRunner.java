@@ -0,0 +1,61 @@
+package com.acmeair.config;
+
+import com.acmeair.service.FlightSearchIndex;
+import com.acmeair.service.SyntheticDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@Component
+@Profile("datagen")
+public class DataGenerationRunner implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(DataGenerationRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FlightSearchIndex flightSearchIndex;
+    private final ConfigurableApplicationContext applicationContext;
+    private final SyntheticDataGenerator.Plan plan;
+    private final boolean exitAfterLoad;
+
+    public DataGenerationRunner(JdbcTemplate jdbcTemplate, FlightSearchIndex flightSearchIndex,
+                                ConfigurableApplicationContext applicationContext,
+                                @Value("${acme-air.datagen.airports:10}") int airports,
+                                @Value("${acme-air.datagen.days:30}") int days,
+                                @Value("${acme-air.datagen.flights-per-route-per-day:4}") int flightsPerRoutePerDay,
+                                @Value("${acme-air.datagen.economy-seats:120}") int economySeats,
+                                @Value("${acme-air.datagen.bookings:10000}") int bookings,
+                                @Value("${acme-air.datagen.exit-after-load:false}") boolean exitAfterLoad) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flightSearchIndex = flightSearchIndex;
+        this.applicationContext = applicationContext;
+        this.plan = new SyntheticDataGenerator.Plan(airports, days, flightsPerRoutePerDay, economySeats, bookings,
+                LocalDate.now(ZoneOffset.UTC).plusDays(1));
+        this.exitAfterLoad = exitAfterLoad;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flights WHERE id LIKE 'GF%'", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Skipping data generation, {} generated flights are already loaded", existing);
+        } else {
+            new SyntheticDataGenerator(jdbcTemplate).generate(plan);
+            // Refresh planner statistics so the first queries against the new volume pick the right indexes
+            jdbcTemplate.execute("ANALYZE");
+            flightSearchIndex.reload();
+        }
+
+        if (exitAfterLoad) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
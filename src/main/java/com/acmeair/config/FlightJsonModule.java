@@ -0,0 +1,49 @@
+package com.acmeair.config;
+
+import com.acmeair.dto.FlightResponseDto;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Registered with the application ObjectMapper, so search pages, flight details and the NDJSON stream all write
+// flights from cached fragments straight into the response output stream.
+@Component
+public class FlightJsonModule extends SimpleModule implements MeterBinder {
+    private final Cache<String, FlightResponseJsonSerializer.Template> templates;
+
+    public FlightJsonModule(@Value("${acme-air.flights.json-cache.maximum-size:10000}") long maximumSize) {
+        super("acme-air-flight-json");
+        this.templates = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                return beanDesc.getBeanClass() == FlightResponseDto.class
+                        ? new FlightResponseJsonSerializer(serializer, templates)
+                        : serializer;
+            }
+        });
+    }
+
+    public CacheStats getCacheStats() {
+        return templates.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, templates, "flight-json");
+    }
+}
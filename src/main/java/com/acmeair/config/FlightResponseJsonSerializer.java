@@ -0,0 +1,203 @@
+package com.acmeair.config;
+
+import com.acmeair.dto.FlightResponseDto;
+import com.acmeair.dto.SeatClasses;
+import com.acmeair.dto.SeatInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+// Writes a FlightResponseDto as the pre-encoded UTF-8 fragments between its availability numbers, so only those
+// five numbers are formatted per request. Fragments are rendered once per flight by the regular bean serializer
+// and re-rendered when any of the static attributes they were built from changes.
+class FlightResponseJsonSerializer extends StdSerializer<FlightResponseDto>
+        implements ContextualSerializer, ResolvableSerializer {
+    private static final JsonFactory FRAGMENT_FACTORY = new JsonFactory();
+    private static final int VOLATILE_FIELDS = 5;
+    private static final int SENTINEL = 2_000_000_000;
+
+    private final JsonSerializer<Object> delegate;
+    private final Cache<String, Template> templates;
+
+    @SuppressWarnings("unchecked")
+    FlightResponseJsonSerializer(JsonSerializer<?> delegate, Cache<String, Template> templates) {
+        super(FlightResponseDto.class);
+        this.delegate = (JsonSerializer<Object>) delegate;
+        this.templates = templates;
+    }
+
+    @Override
+    public void serialize(FlightResponseDto flight, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (gen.getPrettyPrinter() != null || !hasAllSeatClasses(flight) || flight.getId() == null) {
+            delegate.serialize(flight, gen, provider);
+            return;
+        }
+        Template template = templates.getIfPresent(flight.getId());
+        if (template == null || !template.matches(flight)) {
+            template = render(flight, provider);
+            if (template == null) {
+                delegate.serialize(flight, gen, provider);
+                return;
+            }
+            templates.put(flight.getId(), template);
+        }
+        template.write(flight, gen);
+    }
+
+    @Override
+    public void serializeWithType(FlightResponseDto flight, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        delegate.serializeWithType(flight, gen, provider, typeSer);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        JsonSerializer<?> contextual = delegate instanceof ContextualSerializer c ? c.createContextual(provider, property) : delegate;
+        return contextual == delegate ? this : new FlightResponseJsonSerializer(contextual, templates);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+
+    // Serializes a copy carrying unique sentinel availability values and cuts the output at each sentinel. Returns
+    // null if a sentinel does not appear exactly once, in which case the flight is always written by the delegate.
+    private Template render(FlightResponseDto flight, SerializerProvider provider) throws IOException {
+        FlightResponseDto probe = probeOf(flight);
+        StringWriter out = new StringWriter(512);
+        try (JsonGenerator gen = FRAGMENT_FACTORY.createGenerator(out)) {
+            delegate.serialize(probe, gen, provider);
+        }
+        String json = out.toString();
+
+        int[] positions = new int[VOLATILE_FIELDS];
+        for (int field = 0; field < VOLATILE_FIELDS; field++) {
+            String sentinel = Integer.toString(SENTINEL + field);
+            positions[field] = json.indexOf(sentinel);
+            if (positions[field] < 0 || json.indexOf(sentinel, positions[field] + 1) >= 0) {
+                return null;
+            }
+        }
+        int[] order = IntStream.range(0, VOLATILE_FIELDS).boxed()
+                .sorted(Comparator.comparingInt(field -> positions[field]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        SerializedString[] fragments = new SerializedString[VOLATILE_FIELDS + 1];
+        int start = 0;
+        for (int i = 0; i < VOLATILE_FIELDS; i++) {
+            fragments[i] = new SerializedString(json.substring(start, positions[order[i]]));
+            start = positions[order[i]] + Integer.toString(SENTINEL + order[i]).length();
+        }
+        fragments[VOLATILE_FIELDS] = new SerializedString(json.substring(start));
+        // Encode eagerly so concurrent writers share one byte array instead of racing to build it
+        Arrays.stream(fragments).forEach(SerializedString::asUnquotedUTF8);
+        return new Template(probe, fragments, order);
+    }
+
+    private static boolean hasAllSeatClasses(FlightResponseDto flight) {
+        SeatClasses seats = flight.getSeats();
+        return seats != null && seats.getEconomy() != null && seats.getPremiumEconomy() != null
+                && seats.getBusiness() != null && seats.getFirstClass() != null;
+    }
+
+    private static FlightResponseDto probeOf(FlightResponseDto flight) {
+        FlightResponseDto probe = new FlightResponseDto();
+        probe.setId(flight.getId());
+        probe.setFlightNumber(flight.getFlightNumber());
+        probe.setOrigin(flight.getOrigin());
+        probe.setDestination(flight.getDestination());
+        probe.setDepartureTime(flight.getDepartureTime());
+        probe.setArrivalTime(flight.getArrivalTime());
+        probe.setAircraft(flight.getAircraft());
+        probe.setStops(flight.getStops());
+        probe.setDirect(flight.isDirect());
+        probe.setTotalSeats(flight.getTotalSeats());
+        SeatClasses seats = flight.getSeats();
+        probe.setSeats(new SeatClasses(
+                probeSeat(seats.getEconomy(), 0),
+                probeSeat(seats.getPremiumEconomy(), 1),
+                probeSeat(seats.getBusiness(), 2),
+                probeSeat(seats.getFirstClass(), 3)));
+        probe.setTotalAvailableSeats(SENTINEL + 4);
+        return probe;
+    }
+
+    private static SeatInfo probeSeat(SeatInfo seat, int field) {
+        return new SeatInfo(seat.getPrice(), SENTINEL + field, seat.getTotalSeats());
+    }
+
+    private static int available(FlightResponseDto flight, int field) {
+        SeatClasses seats = flight.getSeats();
+        return switch (field) {
+            case 0 -> seats.getEconomy().getAvailableSeats();
+            case 1 -> seats.getPremiumEconomy().getAvailableSeats();
+            case 2 -> seats.getBusiness().getAvailableSeats();
+            case 3 -> seats.getFirstClass().getAvailableSeats();
+            default -> flight.getTotalAvailableSeats();
+        };
+    }
+
+    static final class Template {
+        private final FlightResponseDto source;
+        private final SerializedString[] fragments;
+        private final int[] order;
+
+        private Template(FlightResponseDto source, SerializedString[] fragments, int[] order) {
+            this.source = source;
+            this.fragments = fragments;
+            this.order = order;
+        }
+
+        boolean matches(FlightResponseDto flight) {
+            SeatClasses seats = flight.getSeats();
+            SeatClasses cached = source.getSeats();
+            return Objects.equals(source.getFlightNumber(), flight.getFlightNumber())
+                    && Objects.equals(source.getOrigin(), flight.getOrigin())
+                    && Objects.equals(source.getDestination(), flight.getDestination())
+                    && Objects.equals(source.getDepartureTime(), flight.getDepartureTime())
+                    && Objects.equals(source.getArrivalTime(), flight.getArrivalTime())
+                    && Objects.equals(source.getAircraft(), flight.getAircraft())
+                    && source.getStops() == flight.getStops()
+                    && source.isDirect() == flight.isDirect()
+                    && source.getTotalSeats() == flight.getTotalSeats()
+                    && sameStatic(cached.getEconomy(), seats.getEconomy())
+                    && sameStatic(cached.getPremiumEconomy(), seats.getPremiumEconomy())
+                    && sameStatic(cached.getBusiness(), seats.getBusiness())
+                    && sameStatic(cached.getFirstClass(), seats.getFirstClass());
+        }
+
+        private static boolean sameStatic(SeatInfo cached, SeatInfo seat) {
+            return Objects.equals(cached.getPrice(), seat.getPrice()) && cached.getTotalSeats() == seat.getTotalSeats();
+        }
+
+        // The first fragment goes through writeRawValue so the generator still emits separators between array
+        // elements; everything after it is appended as raw bytes.
+        void write(FlightResponseDto flight, JsonGenerator gen) throws IOException {
+            gen.writeRawValue(fragments[0]);
+            for (int i = 0; i < order.length; i++) {
+                gen.writeRaw(Integer.toString(available(flight, order[i])));
+                gen.writeRaw(fragments[i + 1]);
+            }
+        }
+    }
+}
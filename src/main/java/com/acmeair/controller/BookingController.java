@@ -1,17 +1,23 @@
 package com.acmeair.controller;
 
 import com.acmeair.dto.BookingRequest;
+import com.acmeair.dto.GroupBookingRequest;
 import com.acmeair.model.Booking;
 import com.acmeair.model.Passenger;
 import com.acmeair.service.BookingService;
 import com.acmeair.service.BookingValidatorService;
+import com.acmeair.service.IdempotencyService;
+import com.acmeair.service.SeatAllocationService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,25 +26,53 @@ import java.util.Map;
 public class BookingController {
     private final BookingService bookingService;
     private final BookingValidatorService bookingValidatorService;
+    private final IdempotencyService idempotencyService;
+    private final SeatAllocationService seatAllocationService;
 
-    public BookingController(BookingService bookingService, BookingValidatorService bookingValidatorService) {
+    public BookingController(BookingService bookingService, BookingValidatorService bookingValidatorService,
+                             IdempotencyService idempotencyService, SeatAllocationService seatAllocationService) {
         this.bookingService = bookingService;
         this.bookingValidatorService = bookingValidatorService;
+        this.idempotencyService = idempotencyService;
+        this.seatAllocationService = seatAllocationService;
     }
 
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@Valid @RequestBody BookingRequest bookingRequest) {
+    public ResponseEntity<Booking> createBooking(
+            @RequestHeader("X-API-Key") String apiKey,
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            @Size(min = 1, max = 255, message = "Idempotency-Key must be between 1 and 255 characters") String idempotencyKey,
+            @Valid @RequestBody BookingRequest bookingRequest) {
         bookingValidatorService.validateBookingRequest(bookingRequest);
 
-        Booking booking = bookingService.createBooking(
-                bookingRequest.getFlightType(),
-                bookingRequest.getFlightId(),
-                bookingRequest.getReturnFlightId(),
-                bookingRequest.getSeatClass(),
-                bookingRequest.getPassenger()
-        );
+        List<String> flightIds = Arrays.asList(bookingRequest.getFlightId(), bookingRequest.getReturnFlightId());
+        if (idempotencyKey == null) {
+            Booking booking = seatAllocationService.retryOnSeatConflict(flightIds, () -> createBooking(bookingRequest));
+            return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+        }
+
+        IdempotencyService.Outcome outcome = seatAllocationService.retryOnSeatConflict(flightIds,
+                () -> idempotencyService.execute(apiKey, idempotencyKey, bookingRequest, () -> createBooking(bookingRequest)));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                .body(outcome.booking());
+    }
+
+    @PostMapping("/group")
+    public ResponseEntity<List<Booking>> createGroupBooking(@Valid @RequestBody GroupBookingRequest groupBookingRequest) {
+        bookingValidatorService.validateGroupBookingRequest(groupBookingRequest);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+        List<String> flightIds = Arrays.asList(groupBookingRequest.getFlightId(), groupBookingRequest.getReturnFlightId());
+        List<Booking> bookings = seatAllocationService.retryOnSeatConflict(flightIds,
+                () -> bookingService.createGroupBooking(
+                        groupBookingRequest.getFlightType(),
+                        groupBookingRequest.getFlightId(),
+                        groupBookingRequest.getReturnFlightId(),
+                        groupBookingRequest.getSeatClass(),
+                        groupBookingRequest.getPassengers()
+                ));
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookings);
     }
 
     @PutMapping("/{bookingId}/passenger")
@@ -75,4 +109,14 @@ public class BookingController {
         Booking booking = bookingService.getBookingById(bookingId);
         return ResponseEntity.ok(booking);
     }
-}
\ No newline at end of file
+
+    private Booking createBooking(BookingRequest bookingRequest) {
+        return bookingService.createBooking(
+                bookingRequest.getFlightType(),
+                bookingRequest.getFlightId(),
+                bookingRequest.getReturnFlightId(),
+                bookingRequest.getSeatClass(),
+                bookingRequest.getPassenger()
+        );
+    }
+}
@@ -4,18 +4,28 @@ import com.acmeair.dto.FlightResponseDto;
 import com.acmeair.dto.FlightSearchResponse;
 import com.acmeair.model.Flight;
 import com.acmeair.model.FlightType;
+import com.acmeair.service.FlightDetailsCache;
 import com.acmeair.service.FlightService;
 import com.acmeair.service.FlightSearchValidatorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -25,10 +35,13 @@ import java.time.LocalDate;
 public class FlightController {
     private final FlightService flightService;
     private final FlightSearchValidatorService flightSearchValidatorService;
+    private final ObjectWriter flightWriter;
 
-    public FlightController(FlightService flightService, FlightSearchValidatorService flightSearchValidatorService) {
+    public FlightController(FlightService flightService, FlightSearchValidatorService flightSearchValidatorService,
+                            ObjectMapper objectMapper) {
         this.flightService = flightService;
         this.flightSearchValidatorService = flightSearchValidatorService;
+        this.flightWriter = objectMapper.writerFor(FlightResponseDto.class);
     }
 
     @GetMapping("/search")
@@ -47,27 +60,98 @@ public class FlightController {
             @RequestParam(defaultValue = "10") @Min(value = 1, message = "Page size must be at least 1")
             @Max(value = 100, message = "Page size cannot exceed 100") int size,
             @RequestParam(defaultValue = "departureTime") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String returnCursor) {
+
+        departureAirport = Flight.normalizeAirportCode(departureAirport);
+        arrivalAirport = Flight.normalizeAirportCode(arrivalAirport);
 
         flightSearchValidatorService.validateFlightSearchRequest(
                 flightType, departureAirport, arrivalAirport, departureDate,
                 returnDate, minPrice, maxPrice);
 
-        FlightSearchResponse response = flightService.searchFlights(
-                flightType, departureAirport, arrivalAirport, departureDate, returnDate,
-                minPrice, maxPrice, directFlightsOnly,
-                page, size, sortBy, sortDirection
-        );
+        FlightSearchResponse response;
+        if ("keyset".equalsIgnoreCase(pagination) || cursor != null || returnCursor != null) {
+            response = flightService.scrollFlights(
+                    flightType, departureAirport, arrivalAirport, departureDate, returnDate,
+                    minPrice, maxPrice, directFlightsOnly,
+                    size, sortBy, sortDirection, cursor, returnCursor
+            );
+        } else if ("offset".equalsIgnoreCase(pagination)) {
+            response = flightService.searchFlights(
+                    flightType, departureAirport, arrivalAirport, departureDate, returnDate,
+                    minPrice, maxPrice, directFlightsOnly,
+                    page, size, sortBy, sortDirection
+            );
+        } else {
+            throw new IllegalArgumentException("Invalid pagination mode: " + pagination + ". Valid modes are: offset, keyset");
+        }
 
         return ResponseEntity.ok(response);
     }
 
+    // Every matching flight with no page cap, one JSON object per line, outbound leg first. Rows are written to the
+    // response as the cursor yields them and the first line is flushed straight away.
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamFlights(
+            @RequestParam @NotNull(message = "Flight type is required") FlightType flightType,
+            @RequestParam @NotBlank(message = "Departure airport is required") String departureAirport,
+            @RequestParam @NotBlank(message = "Arrival airport is required") String arrivalAirport,
+            @RequestParam @NotNull(message = "Departure date is required")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnDate,
+            @RequestParam(required = false) @Positive(message = "Minimum price must be greater than 0") BigDecimal minPrice,
+            @RequestParam(required = false) @Positive(message = "Maximum price must be greater than 0") BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean directFlightsOnly,
+            @RequestParam(defaultValue = "departureTime") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            HttpServletResponse response) throws IOException {
+
+        departureAirport = Flight.normalizeAirportCode(departureAirport);
+        arrivalAirport = Flight.normalizeAirportCode(arrivalAirport);
+
+        flightSearchValidatorService.validateFlightSearchRequest(
+                flightType, departureAirport, arrivalAirport, departureDate,
+                returnDate, minPrice, maxPrice);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ServletOutputStream out = response.getOutputStream();
+        try {
+            flightService.streamFlights(
+                    flightType, departureAirport, arrivalAirport, departureDate, returnDate,
+                    minPrice, maxPrice, directFlightsOnly, sortBy, sortDirection,
+                    flight -> {
+                        try {
+                            out.write(flightWriter.writeValueAsBytes(new FlightResponseDto(flight)));
+                            out.write('\n');
+                            if (!response.isCommitted()) {
+                                out.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
     @GetMapping("/{flightId}")
     public ResponseEntity<FlightResponseDto> getFlightDetails(
-            @PathVariable @NotBlank(message = "Flight ID is required") String flightId) {
+            @PathVariable @NotBlank(message = "Flight ID is required") String flightId,
+            WebRequest webRequest) {
 
-        Flight flight = flightService.getFlightById(flightId);
-        FlightResponseDto flightDto = new FlightResponseDto(flight);
-        return ResponseEntity.ok(flightDto);
+        FlightDetailsCache.FlightDetails details = flightService.getFlightDetails(flightId);
+        if (webRequest.checkNotModified(details.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(details.etag())
+                .body(details.flight());
     }
 }
\ No newline at end of file
@@ -8,7 +8,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 @ValidReturnFlight
-public class BookingRequest {
+public class BookingRequest implements FlightSelection {
     @NotNull(message = "Flight type is required")
     private FlightType flightType;
 
@@ -35,12 +35,15 @@ public class BookingRequest {
         this.passenger = passenger;
     }
 
+    @Override
     public FlightType getFlightType() { return flightType; }
     public void setFlightType(FlightType flightType) { this.flightType = flightType; }
 
+    @Override
     public String getFlightId() { return flightId; }
     public void setFlightId(String flightId) { this.flightId = flightId; }
 
+    @Override
     public String getReturnFlightId() { return returnFlightId; }
     public void setReturnFlightId(String returnFlightId) { this.returnFlightId = returnFlightId; }
 
@@ -46,6 +46,28 @@ public class FlightResponseDto {
         this.totalAvailableSeats = flight.getTotalAvailableSeats();
     }
 
+    public FlightResponseDto(FlightView flight) {
+        this.id = flight.id();
+        this.flightNumber = flight.flightNumber();
+        this.origin = flight.origin();
+        this.destination = flight.destination();
+        this.departureTime = flight.departureTime();
+        this.arrivalTime = flight.arrivalTime();
+        this.aircraft = flight.aircraft();
+        this.stops = flight.stops();
+        this.isDirect = flight.direct();
+
+        this.seats = new SeatClasses(
+                new SeatInfo(flight.economyPrice(), flight.economyAvailable(), flight.economyTotal()),
+                new SeatInfo(flight.premiumEconomyPrice(), flight.premiumEconomyAvailable(), flight.premiumEconomyTotal()),
+                new SeatInfo(flight.businessPrice(), flight.businessAvailable(), flight.businessTotal()),
+                new SeatInfo(flight.firstClassPrice(), flight.firstClassAvailable(), flight.firstClassTotal())
+        );
+
+        this.totalSeats = flight.totalSeats();
+        this.totalAvailableSeats = flight.totalAvailableSeats();
+    }
+
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
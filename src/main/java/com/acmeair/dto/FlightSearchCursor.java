@@ -0,0 +1,51 @@
+package com.acmeair.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+public record FlightSearchCursor(String sortProperty, Sort.Direction direction, String sortValue, String flightId) {
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "\n";
+
+    public static FlightSearchCursor of(String sortProperty, Sort.Direction direction, Map<String, ?> keys) {
+        Object value = keys.get(sortProperty);
+        String sortValue = value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+        return new FlightSearchCursor(sortProperty, direction, sortValue, String.valueOf(keys.get("id")));
+    }
+
+    public static FlightSearchCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            FlightSearchCursor cursor = new FlightSearchCursor(parts[1], Sort.Direction.valueOf(parts[2]), parts[3], parts[4]);
+            cursor.toKeys();
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortProperty, direction.name(), sortValue, flightId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Map<String, Object> toKeys() {
+        Object typedValue = switch (sortProperty) {
+            case "departureTime" -> LocalDateTime.parse(sortValue);
+            case "economyPrice" -> new BigDecimal(sortValue);
+            case "origin", "destination" -> sortValue;
+            default -> throw new IllegalArgumentException("Invalid cursor");
+        };
+        return Map.of(sortProperty, typedValue, "id", flightId);
+    }
+}
@@ -9,16 +9,18 @@ public class FlightSearchResponse {
     private FlightType flightType;
     private List<FlightResponseDto> outboundFlights;
     private List<FlightResponseDto> returnFlights;
-    private int totalResults;
-    private int currentPage;
+    private Integer totalResults;
+    private Integer currentPage;
     private int pageSize;
-    private int totalPages;
+    private Integer totalPages;
     private boolean isFirst;
     private boolean isLast;
+    private String nextCursor;
+    private String returnNextCursor;
 
     public FlightSearchResponse() {}
 
-    public FlightSearchResponse(FlightType flightType, List<com.acmeair.model.Flight> outboundFlights, int totalResults,
+    public FlightSearchResponse(FlightType flightType, List<FlightView> outboundFlights, int totalResults,
                                 int currentPage, int pageSize, int totalPages, boolean isFirst, boolean isLast) {
         this.flightType = flightType;
         this.outboundFlights = outboundFlights.stream()
@@ -33,8 +35,8 @@ public class FlightSearchResponse {
         this.isLast = isLast;
     }
 
-    public FlightSearchResponse(FlightType flightType, List<com.acmeair.model.Flight> outboundFlights,
-                                List<com.acmeair.model.Flight> returnFlights,
+    public FlightSearchResponse(FlightType flightType, List<FlightView> outboundFlights,
+                                List<FlightView> returnFlights,
                                 int totalResults, int currentPage, int pageSize, int totalPages,
                                 boolean isFirst, boolean isLast) {
         this.flightType = flightType;
@@ -53,6 +55,17 @@ public class FlightSearchResponse {
         this.isLast = isLast;
     }
 
+    public FlightSearchResponse(FlightType flightType, List<FlightView> outboundFlights,
+                                List<FlightView> returnFlights, int pageSize,
+                                String nextCursor, String returnNextCursor, boolean isFirst, boolean isLast) {
+        this(flightType, outboundFlights, returnFlights, 0, 0, pageSize, 0, isFirst, isLast);
+        this.totalResults = null;
+        this.currentPage = null;
+        this.totalPages = null;
+        this.nextCursor = nextCursor;
+        this.returnNextCursor = returnNextCursor;
+    }
+
     public FlightType getFlightType() { return flightType; }
     public void setFlightType(FlightType flightType) { this.flightType = flightType; }
 
@@ -62,21 +75,27 @@ public class FlightSearchResponse {
     public List<FlightResponseDto> getReturnFlights() { return returnFlights; }
     public void setReturnFlights(List<FlightResponseDto> returnFlights) { this.returnFlights = returnFlights; }
 
-    public int getTotalResults() { return totalResults; }
-    public void setTotalResults(int totalResults) { this.totalResults = totalResults; }
+    public Integer getTotalResults() { return totalResults; }
+    public void setTotalResults(Integer totalResults) { this.totalResults = totalResults; }
 
-    public int getCurrentPage() { return currentPage; }
-    public void setCurrentPage(int currentPage) { this.currentPage = currentPage; }
+    public Integer getCurrentPage() { return currentPage; }
+    public void setCurrentPage(Integer currentPage) { this.currentPage = currentPage; }
 
     public int getPageSize() { return pageSize; }
     public void setPageSize(int pageSize) { this.pageSize = pageSize; }
 
-    public int getTotalPages() { return totalPages; }
-    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
 
     public boolean isFirst() { return isFirst; }
     public void setFirst(boolean first) { isFirst = first; }
 
     public boolean isLast() { return isLast; }
     public void setLast(boolean last) { isLast = last; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public String getReturnNextCursor() { return returnNextCursor; }
+    public void setReturnNextCursor(String returnNextCursor) { this.returnNextCursor = returnNextCursor; }
 }
\ No newline at end of file
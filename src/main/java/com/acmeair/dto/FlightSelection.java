@@ -0,0 +1,9 @@
+package com.acmeair.dto;
+
+import com.acmeair.model.FlightType;
+
+public interface FlightSelection {
+    FlightType getFlightType();
+    String getFlightId();
+    String getReturnFlightId();
+}
@@ -0,0 +1,53 @@
+package com.acmeair.dto;
+
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record FlightView(
+        String id, String flightNumber, String origin, String destination,
+        LocalDateTime departureTime, LocalDateTime arrivalTime, String aircraft,
+        BigDecimal economyPrice, BigDecimal premiumEconomyPrice, BigDecimal businessPrice, BigDecimal firstClassPrice,
+        int economyAvailable, int premiumEconomyAvailable, int businessAvailable, int firstClassAvailable,
+        int economyTotal, int premiumEconomyTotal, int businessTotal, int firstClassTotal,
+        boolean direct, int stops, long version) {
+
+    public static FlightView of(Flight flight) {
+        return new FlightView(flight.getId(), flight.getFlightNumber(), flight.getOrigin(), flight.getDestination(),
+                flight.getDepartureTime(), flight.getArrivalTime(), flight.getAircraft(),
+                flight.getEconomyPrice(), flight.getPremiumEconomyPrice(), flight.getBusinessPrice(), flight.getFirstClassPrice(),
+                flight.getEconomyAvailable(), flight.getPremiumEconomyAvailable(), flight.getBusinessAvailable(), flight.getFirstClassAvailable(),
+                flight.getEconomyTotal(), flight.getPremiumEconomyTotal(), flight.getBusinessTotal(), flight.getFirstClassTotal(),
+                flight.isDirect(), flight.getStops(), flight.getVersion());
+    }
+
+    public FlightView withSeatChange(SeatClass seatClass, int delta) {
+        return new FlightView(id, flightNumber, origin, destination, departureTime, arrivalTime, aircraft,
+                economyPrice, premiumEconomyPrice, businessPrice, firstClassPrice,
+                economyAvailable + (seatClass == SeatClass.ECONOMY ? delta : 0),
+                premiumEconomyAvailable + (seatClass == SeatClass.PREMIUM_ECONOMY ? delta : 0),
+                businessAvailable + (seatClass == SeatClass.BUSINESS ? delta : 0),
+                firstClassAvailable + (seatClass == SeatClass.FIRST_CLASS ? delta : 0),
+                economyTotal, premiumEconomyTotal, businessTotal, firstClassTotal,
+                direct, stops, version + 1);
+    }
+
+    public int availableSeats(SeatClass seatClass) {
+        return switch (seatClass) {
+            case ECONOMY -> economyAvailable;
+            case PREMIUM_ECONOMY -> premiumEconomyAvailable;
+            case BUSINESS -> businessAvailable;
+            case FIRST_CLASS -> firstClassAvailable;
+        };
+    }
+
+    public int totalSeats() {
+        return economyTotal + premiumEconomyTotal + businessTotal + firstClassTotal;
+    }
+
+    public int totalAvailableSeats() {
+        return economyAvailable + premiumEconomyAvailable + businessAvailable + firstClassAvailable;
+    }
+}
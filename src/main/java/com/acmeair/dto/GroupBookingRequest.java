@@ -0,0 +1,61 @@
+package com.acmeair.dto;
+
+import com.acmeair.model.FlightType;
+import com.acmeair.model.Passenger;
+import com.acmeair.model.SeatClass;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@ValidReturnFlight
+public class GroupBookingRequest implements FlightSelection {
+    public static final int MAX_PASSENGERS = 9;
+
+    @NotNull(message = "Flight type is required")
+    private FlightType flightType;
+
+    @NotBlank(message = "Flight ID is required")
+    private String flightId;
+
+    private String returnFlightId;
+
+    @NotNull(message = "Seat class is required")
+    private SeatClass seatClass;
+
+    @NotEmpty(message = "At least one passenger is required")
+    @Size(max = MAX_PASSENGERS, message = "A group booking can have at most " + MAX_PASSENGERS + " passengers")
+    private List<@NotNull @Valid Passenger> passengers;
+
+    public GroupBookingRequest() {}
+
+    public GroupBookingRequest(FlightType flightType, String flightId, String returnFlightId,
+                               SeatClass seatClass, List<Passenger> passengers) {
+        this.flightType = flightType;
+        this.flightId = flightId;
+        this.returnFlightId = returnFlightId;
+        this.seatClass = seatClass;
+        this.passengers = passengers;
+    }
+
+    @Override
+    public FlightType getFlightType() { return flightType; }
+    public void setFlightType(FlightType flightType) { this.flightType = flightType; }
+
+    @Override
+    public String getFlightId() { return flightId; }
+    public void setFlightId(String flightId) { this.flightId = flightId; }
+
+    @Override
+    public String getReturnFlightId() { return returnFlightId; }
+    public void setReturnFlightId(String returnFlightId) { this.returnFlightId = returnFlightId; }
+
+    public SeatClass getSeatClass() { return seatClass; }
+    public void setSeatClass(SeatClass seatClass) { this.seatClass = seatClass; }
+
+    public List<Passenger> getPassengers() { return passengers; }
+    public void setPassengers(List<Passenger> passengers) { this.passengers = passengers; }
+}
@@ -4,10 +4,10 @@ import com.acmeair.model.FlightType;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-public class ReturnFlightValidator implements ConstraintValidator<ValidReturnFlight, BookingRequest> {
+public class ReturnFlightValidator implements ConstraintValidator<ValidReturnFlight, FlightSelection> {
 
     @Override
-    public boolean isValid(BookingRequest request, ConstraintValidatorContext context) {
+    public boolean isValid(FlightSelection request, ConstraintValidatorContext context) {
         if (request == null || request.getFlightType() == null) {
             return true;
         }
@@ -3,19 +3,29 @@ package com.acmeair.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Objects;
 
 @Entity
 @Table(name = "api_tokens")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "api-tokens")
+@NaturalIdCache(region = "api-token-natural-ids")
 public class ApiToken {
     @Id
     private String id;
 
-    @NotBlank
-    @Column(name = "token_value", unique = true)
-    private String tokenValue;
+    @NaturalId
+    @NotNull
+    @Column(name = "token_hash", unique = true, length = 32)
+    private byte[] tokenHash;
 
     @NotBlank
     private String description;
@@ -27,11 +37,14 @@ public class ApiToken {
     @Column(name = "is_active")
     private boolean active = true;
 
+    @Column(name = "last_modified")
+    private LocalDateTime lastModified;
+
     public ApiToken() {}
 
-    public ApiToken(String id, String tokenValue, String description, LocalDateTime createdTime, boolean active) {
+    public ApiToken(String id, byte[] tokenHash, String description, LocalDateTime createdTime, boolean active) {
         this.id = id;
-        this.tokenValue = tokenValue;
+        this.tokenHash = tokenHash;
         this.description = description;
         this.createdTime = createdTime;
         this.active = active;
@@ -40,8 +53,8 @@ public class ApiToken {
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
-    public String getTokenValue() { return tokenValue; }
-    public void setTokenValue(String tokenValue) { this.tokenValue = tokenValue; }
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
 
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
@@ -52,6 +65,15 @@ public class ApiToken {
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
 
+    public LocalDateTime getLastModified() { return lastModified; }
+    public void setLastModified(LocalDateTime lastModified) { this.lastModified = lastModified; }
+
+    @PrePersist
+    @PreUpdate
+    void touchLastModified() {
+        lastModified = ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
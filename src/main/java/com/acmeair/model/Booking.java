@@ -1,10 +1,12 @@
 package com.acmeair.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,7 +14,7 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "bookings")
-public class Booking {
+public class Booking implements Persistable<String> {
     @Id
     private String id;
 
@@ -57,6 +59,9 @@ public class Booking {
     @Column(name = "total_price")
     private BigDecimal totalPrice;
 
+    @Transient
+    private boolean isNew = true;
+
     public Booking() {}
 
     public Booking(String id, String flightId, String returnFlightId, Passenger passenger,
@@ -109,6 +114,15 @@ public class Booking {
     public BigDecimal getTotalPrice() { return totalPrice; }
     public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
 
+    // IDs are assigned by the application, so without this save() would merge and SELECT each new row first
+    @Override
+    @JsonIgnore
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { isNew = false; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -5,13 +5,18 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 @Entity
 @Table(name = "flights")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "flights")
 public class Flight {
     @Id
     @NotBlank
@@ -96,6 +101,9 @@ public class Flight {
     @Column(name = "stops")
     private int stops = 0;
 
+    @Version
+    private long version;
+
     public Flight() {}
 
     public Flight(String id, String flightNumber, String origin, String destination,
@@ -190,6 +198,9 @@ public class Flight {
     public int getStops() { return stops; }
     public void setStops(int stops) { this.stops = stops; }
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     public int getTotalAvailableSeats() {
         return economyAvailable + premiumEconomyAvailable + businessAvailable + firstClassAvailable;
     }
@@ -198,6 +209,17 @@ public class Flight {
         return economyTotal + premiumEconomyTotal + businessTotal + firstClassTotal;
     }
 
+    @PrePersist
+    @PreUpdate
+    void normalizeAirportCodes() {
+        origin = normalizeAirportCode(origin);
+        destination = normalizeAirportCode(destination);
+    }
+
+    public static String normalizeAirportCode(String airportCode) {
+        return airportCode == null ? null : airportCode.trim().toUpperCase(Locale.ROOT);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,68 @@
+package com.acmeair.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    @Column(name = "key_hash")
+    private String keyHash;
+
+    @Column(name = "request_hash")
+    private String requestHash;
+
+    @Column(name = "booking_id")
+    private String bookingId;
+
+    @Column(name = "created_time")
+    private LocalDateTime createdTime;
+
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String keyHash, String requestHash, String bookingId, LocalDateTime createdTime) {
+        this.keyHash = keyHash;
+        this.requestHash = requestHash;
+        this.bookingId = bookingId;
+        this.createdTime = createdTime;
+    }
+
+    public String getKeyHash() { return keyHash; }
+    public String getRequestHash() { return requestHash; }
+    public String getBookingId() { return bookingId; }
+    public LocalDateTime getCreatedTime() { return createdTime; }
+
+    @Override
+    @JsonIgnore
+    public String getId() { return keyHash; }
+
+    // Always inserted, so a concurrent insert for the same key fails on the primary key instead of merging
+    @Override
+    @JsonIgnore
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { isNew = false; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdempotencyRecord that = (IdempotencyRecord) o;
+        return Objects.equals(keyHash, that.keyHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(keyHash);
+    }
+}
@@ -1,17 +1,19 @@
 package com.acmeair.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
 @Table(name = "passengers")
-public class Passenger {
+public class Passenger implements Persistable<String> {
     @Id
     private String id;
 
@@ -40,6 +42,9 @@ public class Passenger {
     @Column(name = "date_of_birth")
     private LocalDate dateOfBirth;
 
+    @Transient
+    private boolean isNew = true;
+
     public Passenger() {}
 
     public Passenger(String id, String firstName, String lastName, String email,
@@ -74,6 +79,15 @@ public class Passenger {
     public LocalDate getDateOfBirth() { return dateOfBirth; }
     public void setDateOfBirth(LocalDate dateOfBirth) { this.dateOfBirth = dateOfBirth; }
 
+    // IDs are assigned by the application, so without this save() would merge and SELECT each new row first
+    @Override
+    @JsonIgnore
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { isNew = false; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
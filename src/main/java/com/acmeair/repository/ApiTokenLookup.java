@@ -0,0 +1,13 @@
+package com.acmeair.repository;
+
+import com.acmeair.model.ApiToken;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface ApiTokenLookup {
+
+    // Resolved through the natural-id cache, so a known digest is answered without a query
+    @Transactional(readOnly = true)
+    Optional<ApiToken> findActiveByTokenHash(byte[] tokenHash);
+}
@@ -0,0 +1,23 @@
+package com.acmeair.repository;
+
+import com.acmeair.model.ApiToken;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+class ApiTokenLookupImpl implements ApiTokenLookup {
+    private final EntityManager entityManager;
+
+    ApiTokenLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<ApiToken> findActiveByTokenHash(byte[] tokenHash) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(ApiToken.class)
+                .loadOptional(tokenHash)
+                .filter(ApiToken::isActive);
+    }
+}
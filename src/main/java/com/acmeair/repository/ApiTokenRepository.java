@@ -4,9 +4,12 @@ import com.acmeair.model.ApiToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
-public interface ApiTokenRepository extends JpaRepository<ApiToken, String> {
-    Optional<ApiToken> findByTokenValueAndActiveTrue(String tokenValue);
-}
\ No newline at end of file
+public interface ApiTokenRepository extends JpaRepository<ApiToken, String>, ApiTokenLookup {
+    List<ApiToken> findByActiveTrue();
+
+    List<ApiToken> findByLastModifiedGreaterThanEqual(LocalDateTime since);
+}
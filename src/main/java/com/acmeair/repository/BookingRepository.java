@@ -1,9 +1,36 @@
 package com.acmeair.repository;
 
 import com.acmeair.model.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, String> {
+
+    // Seats held on a flight by either leg of any booking that is not cancelled
+    @Query(nativeQuery = true, value = "SELECT seat_number FROM booking_seats WHERE flight_id = :flightId")
+    List<String> findClaimedSeatNumbers(@Param("flightId") String flightId);
+
+    // Fails with a violation of pk_booking_seats when the seat is already held on that flight. The query space names
+    // a table no entity maps, so Hibernate leaves the second-level cache alone.
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_seats"))
+    @Query(nativeQuery = true, value = "INSERT INTO booking_seats (flight_id, seat_number) VALUES (:flightId, :seatNumber)")
+    int claimSeat(@Param("flightId") String flightId, @Param("seatNumber") String seatNumber);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_seats"))
+    @Query(nativeQuery = true, value = "DELETE FROM booking_seats WHERE flight_id = :flightId AND seat_number = :seatNumber")
+    int releaseSeatClaim(@Param("flightId") String flightId, @Param("seatNumber") String seatNumber);
 }
@@ -0,0 +1,23 @@
+package com.acmeair.repository;
+
+import com.acmeair.model.Flight;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface FlightLookup {
+
+    // One entry per id in the order given, null where no flight exists. Flights already in the persistence context
+    // or the second-level cache are not queried, and the rest are read with a single IN query.
+    @Transactional(readOnly = true)
+    List<Flight> findAllByIdInOrder(List<String> ids);
+
+    // Must be called inside the transaction whose queries are to be cancelled. The returned action cancels whichever
+    // statement that transaction is running at the time and may be run from any thread.
+    Runnable queryCanceller();
+
+    // Drops the flights from the second-level cache now and, inside a transaction, again once it completes, so a
+    // copy of the old row read by another transaction in the meantime is not left behind
+    void evictCachedFlights(Collection<String> flightIds);
+}
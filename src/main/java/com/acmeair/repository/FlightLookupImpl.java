@@ -0,0 +1,54 @@
+package com.acmeair.repository;
+
+import com.acmeair.model.Flight;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+class FlightLookupImpl implements FlightLookup {
+    private final EntityManager entityManager;
+
+    FlightLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Flight> findAllByIdInOrder(List<String> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Flight.class)
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+
+    @Override
+    public Runnable queryCanceller() {
+        Session session = entityManager.unwrap(Session.class);
+        return () -> {
+            try {
+                session.cancelQuery();
+            } catch (HibernateException e) {
+                // The statement finished or was closed in the meantime, so there is nothing left to cancel
+            }
+        };
+    }
+
+    @Override
+    public void evictCachedFlights(Collection<String> flightIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        flightIds.forEach(flightId -> cache.evict(Flight.class, flightId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    flightIds.forEach(flightId -> cache.evict(Flight.class, flightId));
+                }
+            });
+        }
+    }
+}
@@ -1,30 +1,58 @@
 package com.acmeair.repository;
 
+import com.acmeair.dto.FlightView;
 import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface FlightRepository extends JpaRepository<Flight, String> {
+public interface FlightRepository extends JpaRepository<Flight, String>, JpaSpecificationExecutor<Flight>, FlightLookup {
+    String STREAM_FETCH_SIZE = "500";
 
-    @Query("""
-        SELECT f FROM Flight f 
-        WHERE UPPER(f.origin) = UPPER(:departureAirport)
-        AND UPPER(f.destination) = UPPER(:arrivalAirport)
+    @Query(value = """
+        SELECT new com.acmeair.dto.FlightView(
+            f.id, f.flightNumber, f.origin, f.destination, f.departureTime, f.arrivalTime, f.aircraft,
+            f.economyPrice, f.premiumEconomyPrice, f.businessPrice, f.firstClassPrice,
+            f.economyAvailable, f.premiumEconomyAvailable, f.businessAvailable, f.firstClassAvailable,
+            f.economyTotal, f.premiumEconomyTotal, f.businessTotal, f.firstClassTotal,
+            f.isDirect, f.stops, f.version)
+        FROM Flight f
+        WHERE f.origin = :departureAirport
+        AND f.destination = :arrivalAirport
+        AND f.departureTime >= :startOfDay
+        AND f.departureTime < :endOfDay
+        AND (:minPrice IS NULL OR f.economyPrice >= :minPrice)
+        AND (:maxPrice IS NULL OR f.economyPrice <= :maxPrice)
+        AND (:directFlightsOnly IS NULL OR :directFlightsOnly = false OR f.isDirect = true)
+        """, countQuery = """
+        SELECT COUNT(f) FROM Flight f
+        WHERE f.origin = :departureAirport
+        AND f.destination = :arrivalAirport
         AND f.departureTime >= :startOfDay
         AND f.departureTime < :endOfDay
         AND (:minPrice IS NULL OR f.economyPrice >= :minPrice)
         AND (:maxPrice IS NULL OR f.economyPrice <= :maxPrice)
         AND (:directFlightsOnly IS NULL OR :directFlightsOnly = false OR f.isDirect = true)
         """)
-    Page<Flight> findFlights(
+    Page<FlightView> findFlightViews(
             @Param("departureAirport") String departureAirport,
             @Param("arrivalAirport") String arrivalAirport,
             @Param("startOfDay") LocalDateTime startOfDay,
@@ -34,4 +62,193 @@ public interface FlightRepository extends JpaRepository<Flight, String> {
             @Param("directFlightsOnly") Boolean directFlightsOnly,
             Pageable pageable
     );
+
+    @Query("""
+        SELECT new com.acmeair.dto.FlightView(
+            f.id, f.flightNumber, f.origin, f.destination, f.departureTime, f.arrivalTime, f.aircraft,
+            f.economyPrice, f.premiumEconomyPrice, f.businessPrice, f.firstClassPrice,
+            f.economyAvailable, f.premiumEconomyAvailable, f.businessAvailable, f.firstClassAvailable,
+            f.economyTotal, f.premiumEconomyTotal, f.businessTotal, f.firstClassTotal,
+            f.isDirect, f.stops, f.version)
+        FROM Flight f
+        WHERE f.departureTime >= :from
+        """)
+    List<FlightView> findFlightViewsDepartingFrom(@Param("from") LocalDateTime from);
+
+    @Query("""
+        SELECT COALESCE(SUM(f.economyAvailable), 0) AS economy,
+               COALESCE(SUM(f.premiumEconomyAvailable), 0) AS premiumEconomy,
+               COALESCE(SUM(f.businessAvailable), 0) AS business,
+               COALESCE(SUM(f.firstClassAvailable), 0) AS firstClass
+        FROM Flight f
+        WHERE f.departureTime >= :from
+        """)
+    AvailableSeatTotals sumAvailableSeatsDepartingFrom(@Param("from") LocalDateTime from);
+
+    // A projection is read from the table rather than the persistence context, so the seat counts include any
+    // updates this transaction has already made
+    @Query("""
+        SELECT new com.acmeair.dto.FlightView(
+            f.id, f.flightNumber, f.origin, f.destination, f.departureTime, f.arrivalTime, f.aircraft,
+            f.economyPrice, f.premiumEconomyPrice, f.businessPrice, f.firstClassPrice,
+            f.economyAvailable, f.premiumEconomyAvailable, f.businessAvailable, f.firstClassAvailable,
+            f.economyTotal, f.premiumEconomyTotal, f.businessTotal, f.firstClassTotal,
+            f.isDirect, f.stops, f.version)
+        FROM Flight f
+        WHERE f.id IN :flightIds
+        """)
+    List<FlightView> findFlightViewsByIdIn(@Param("flightIds") Collection<String> flightIds);
+
+    // Read through an open cursor STREAM_FETCH_SIZE rows per round trip. Projections are never managed, so the
+    // persistence context stays empty however many rows pass through. Must be consumed inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.acmeair.dto.FlightView(
+            f.id, f.flightNumber, f.origin, f.destination, f.departureTime, f.arrivalTime, f.aircraft,
+            f.economyPrice, f.premiumEconomyPrice, f.businessPrice, f.firstClassPrice,
+            f.economyAvailable, f.premiumEconomyAvailable, f.businessAvailable, f.firstClassAvailable,
+            f.economyTotal, f.premiumEconomyTotal, f.businessTotal, f.firstClassTotal,
+            f.isDirect, f.stops, f.version)
+        FROM Flight f
+        WHERE f.origin = :departureAirport
+        AND f.destination = :arrivalAirport
+        AND f.departureTime >= :startOfDay
+        AND f.departureTime < :endOfDay
+        AND (:minPrice IS NULL OR f.economyPrice >= :minPrice)
+        AND (:maxPrice IS NULL OR f.economyPrice <= :maxPrice)
+        AND (:directFlightsOnly IS NULL OR :directFlightsOnly = false OR f.isDirect = true)
+        """)
+    Stream<FlightView> streamFlightViews(
+            @Param("departureAirport") String departureAirport,
+            @Param("arrivalAirport") String arrivalAirport,
+            @Param("startOfDay") LocalDateTime startOfDay,
+            @Param("endOfDay") LocalDateTime endOfDay,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("directFlightsOnly") Boolean directFlightsOnly,
+            Sort sort
+    );
+
+    // The seat updates are native and declare an empty query space, so Hibernate does not clear the whole flights
+    // region after each one; the rows they touch are evicted by the default methods below instead
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(nativeQuery = true, value = """
+        UPDATE flights
+        SET economy_available = economy_available + :economyDelta,
+            premium_economy_available = premium_economy_available + :premiumEconomyDelta,
+            business_available = business_available + :businessDelta,
+            first_class_available = first_class_available + :firstClassDelta,
+            version = version + 1
+        WHERE id = :flightId
+        """)
+    int adjustSeatCounts(
+            @Param("flightId") String flightId,
+            @Param("economyDelta") int economyDelta,
+            @Param("premiumEconomyDelta") int premiumEconomyDelta,
+            @Param("businessDelta") int businessDelta,
+            @Param("firstClassDelta") int firstClassDelta
+    );
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(nativeQuery = true, value = """
+        UPDATE flights
+        SET economy_available = economy_available - :seats,
+            version = version + 1
+        WHERE id IN :flightIds
+        AND economy_available >= :seats
+        """)
+    int reserveEconomySeats(@Param("flightIds") Collection<String> flightIds, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(nativeQuery = true, value = """
+        UPDATE flights
+        SET premium_economy_available = premium_economy_available - :seats,
+            version = version + 1
+        WHERE id IN :flightIds
+        AND premium_economy_available >= :seats
+        """)
+    int reservePremiumEconomySeats(@Param("flightIds") Collection<String> flightIds, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(nativeQuery = true, value = """
+        UPDATE flights
+        SET business_available = business_available - :seats,
+            version = version + 1
+        WHERE id IN :flightIds
+        AND business_available >= :seats
+        """)
+    int reserveBusinessSeats(@Param("flightIds") Collection<String> flightIds, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(nativeQuery = true, value = """
+        UPDATE flights
+        SET first_class_available = first_class_available - :seats,
+            version = version + 1
+        WHERE id IN :flightIds
+        AND first_class_available >= :seats
+        """)
+    int reserveFirstClassSeats(@Param("flightIds") Collection<String> flightIds, @Param("seats") int seats);
+
+    interface AvailableSeatTotals {
+        long getEconomy();
+        long getPremiumEconomy();
+        long getBusiness();
+        long getFirstClass();
+
+        default long get(SeatClass seatClass) {
+            return switch (seatClass) {
+                case ECONOMY -> getEconomy();
+                case PREMIUM_ECONOMY -> getPremiumEconomy();
+                case BUSINESS -> getBusiness();
+                case FIRST_CLASS -> getFirstClass();
+            };
+        }
+    }
+
+    default int reserveSeats(String flightId, SeatClass seatClass, int seats) {
+        return reserveSeats(List.of(flightId), seatClass, seats);
+    }
+
+    // One statement for every leg; returns the number of flights that had the seats and were updated
+    default int reserveSeats(Collection<String> flightIds, SeatClass seatClass, int seats) {
+        int updated = switch (seatClass) {
+            case ECONOMY -> reserveEconomySeats(flightIds, seats);
+            case PREMIUM_ECONOMY -> reservePremiumEconomySeats(flightIds, seats);
+            case BUSINESS -> reserveBusinessSeats(flightIds, seats);
+            case FIRST_CLASS -> reserveFirstClassSeats(flightIds, seats);
+        };
+        if (updated > 0) {
+            evictCachedFlights(flightIds);
+        }
+        return updated;
+    }
+
+    default int adjustAvailableSeats(String flightId, int economyDelta, int premiumEconomyDelta, int businessDelta,
+                                     int firstClassDelta) {
+        int updated = adjustSeatCounts(flightId, economyDelta, premiumEconomyDelta, businessDelta, firstClassDelta);
+        evictCachedFlights(List.of(flightId));
+        return updated;
+    }
+
+    default int releaseSeats(String flightId, SeatClass seatClass, int seats) {
+        return switch (seatClass) {
+            case ECONOMY -> adjustAvailableSeats(flightId, seats, 0, 0, 0);
+            case PREMIUM_ECONOMY -> adjustAvailableSeats(flightId, 0, seats, 0, 0);
+            case BUSINESS -> adjustAvailableSeats(flightId, 0, 0, seats, 0);
+            case FIRST_CLASS -> adjustAvailableSeats(flightId, 0, 0, 0, seats);
+        };
+    }
 }
\ No newline at end of file
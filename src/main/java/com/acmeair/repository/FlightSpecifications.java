@@ -0,0 +1,37 @@
+package com.acmeair.repository;
+
+import com.acmeair.model.Flight;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class FlightSpecifications {
+
+    private FlightSpecifications() {}
+
+    public static Specification<Flight> search(String departureAirport, String arrivalAirport,
+                                               LocalDateTime startOfDay, LocalDateTime endOfDay,
+                                               BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("origin"), departureAirport));
+            predicates.add(cb.equal(root.get("destination"), arrivalAirport));
+            predicates.add(cb.greaterThanOrEqualTo(root.get("departureTime"), startOfDay));
+            predicates.add(cb.lessThan(root.get("departureTime"), endOfDay));
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("economyPrice"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("economyPrice"), maxPrice));
+            }
+            if (Boolean.TRUE.equals(directFlightsOnly)) {
+                predicates.add(cb.isTrue(root.get("isDirect")));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.acmeair.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public record TokenDigest(long w0, long w1, long w2, long w3) {
+    public static final int LENGTH = 32;
+
+    public static TokenDigest of(String token) {
+        try {
+            return fromBytes(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static TokenDigest fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Token digest must be " + LENGTH + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(LENGTH).putLong(w0).putLong(w1).putLong(w2).putLong(w3).array();
+    }
+
+    @Override
+    public String toString() {
+        return "TokenDigest[" + Long.toHexString(w0) + "...]";
+    }
+}
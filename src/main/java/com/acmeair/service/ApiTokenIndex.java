@@ -0,0 +1,86 @@
+package com.acmeair.service;
+
+import com.acmeair.model.ApiToken;
+import com.acmeair.repository.ApiTokenRepository;
+import com.acmeair.security.TokenDigest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class ApiTokenIndex implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ApiTokenIndex.class);
+
+    private final ApiTokenRepository apiTokenRepository;
+    private final Duration refreshOverlap;
+    private final ConcurrentMap<TokenDigest, TokenMeta> activeTokens = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark = LocalDateTime.MIN;
+
+    public ApiTokenIndex(ApiTokenRepository apiTokenRepository,
+                         @Value("${acme-air.security.token-index.refresh-overlap:1m}") Duration refreshOverlap) {
+        this.apiTokenRepository = apiTokenRepository;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    public record TokenMeta(String tokenId, LocalDateTime lastModified) {}
+
+    @PostConstruct
+    public void load() {
+        List<ApiToken> tokens = apiTokenRepository.findByActiveTrue();
+        tokens.forEach(this::apply);
+        log.info("Loaded {} active API tokens", activeTokens.size());
+    }
+
+    // Rows are re-read from slightly before the last seen change so clock skew between nodes cannot hide an
+    // update; applying the current state of a row twice is harmless. Deleted rows are not seen, so tokens
+    // must be deactivated rather than deleted.
+    @Scheduled(fixedDelayString = "${acme-air.security.token-index.refresh-interval-millis:5000}")
+    public void refresh() {
+        LocalDateTime since = watermark == LocalDateTime.MIN ? watermark : watermark.minus(refreshOverlap);
+        try {
+            apiTokenRepository.findByLastModifiedGreaterThanEqual(since).forEach(this::apply);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh API token index, will retry: {}", e.getMessage());
+        }
+    }
+
+    public boolean contains(TokenDigest digest) {
+        return activeTokens.containsKey(digest);
+    }
+
+    public int size() {
+        return activeTokens.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("acmeair.tokens.index.size", this, ApiTokenIndex::size)
+                .description("Active API tokens held in memory")
+                .register(registry);
+    }
+
+    void apply(ApiToken token) {
+        TokenDigest digest = TokenDigest.fromBytes(token.getTokenHash());
+        if (token.isActive()) {
+            activeTokens.put(digest, new TokenMeta(token.getId(), token.getLastModified()));
+        } else {
+            activeTokens.remove(digest);
+        }
+        LocalDateTime lastModified = token.getLastModified();
+        if (lastModified != null && lastModified.isAfter(watermark)) {
+            watermark = lastModified;
+        }
+    }
+}
@@ -2,30 +2,93 @@ package com.acmeair.service;
 
 import com.acmeair.model.ApiToken;
 import com.acmeair.repository.ApiTokenRepository;
+import com.acmeair.security.TokenDigest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
 @Service
-public class ApiTokenService {
+public class ApiTokenService implements MeterBinder {
     private final ApiTokenRepository apiTokenRepository;
+    private final ApiTokenIndex apiTokenIndex;
+    private final Cache<TokenDigest, Boolean> unknownTokens;
 
-    public ApiTokenService(ApiTokenRepository apiTokenRepository) {
+    public ApiTokenService(ApiTokenRepository apiTokenRepository, ApiTokenIndex apiTokenIndex,
+                           @Value("${acme-air.security.token-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${acme-air.security.token-cache.negative-ttl:5s}") Duration negativeTtl) {
         this.apiTokenRepository = apiTokenRepository;
+        this.apiTokenIndex = apiTokenIndex;
+        this.unknownTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
     }
 
+    // Active tokens are answered from the in-memory index. A miss falls back to the database once (the index may
+    // not have caught up with a token created on another node) and unknown digests are remembered for a few seconds.
+    // The index is checked first, so a remembered miss stops counting as soon as the index refresh picks the token up.
+    @Timed("acmeair.tokens.validate")
     public boolean isValidToken(String token) {
-        return apiTokenRepository.findByTokenValueAndActiveTrue(token).isPresent();
+        if (token == null) {
+            return false;
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        if (apiTokenIndex.contains(digest)) {
+            return true;
+        }
+        if (unknownTokens.getIfPresent(digest) != null) {
+            return false;
+        }
+
+        return apiTokenRepository.findActiveByTokenHash(digest.toBytes())
+                .map(found -> {
+                    apiTokenIndex.apply(found);
+                    return true;
+                })
+                .orElseGet(() -> {
+                    unknownTokens.put(digest, Boolean.FALSE);
+                    return false;
+                });
     }
 
     public ApiToken createToken(String tokenValue, String description) {
+        TokenDigest digest = TokenDigest.of(tokenValue);
         ApiToken token = new ApiToken();
         token.setId("TK" + java.util.UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-        token.setTokenValue(tokenValue);
+        token.setTokenHash(digest.toBytes());
         token.setDescription(description);
         token.setCreatedTime(ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime());
         token.setActive(true);
-        return apiTokenRepository.save(token);
+        ApiToken saved = apiTokenRepository.save(token);
+        apiTokenIndex.apply(saved);
+        unknownTokens.invalidate(digest);
+        return saved;
+    }
+
+    public void deactivateToken(String tokenId) {
+        apiTokenRepository.findById(tokenId).ifPresent(token -> {
+            token.setActive(false);
+            apiTokenIndex.apply(apiTokenRepository.save(token));
+        });
+    }
+
+    public CacheStats getCacheStats() {
+        return unknownTokens.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, unknownTokens, "api-token-unknown");
     }
-}
\ No newline at end of file
+}
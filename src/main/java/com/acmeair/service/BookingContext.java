@@ -0,0 +1,22 @@
+package com.acmeair.service;
+
+import com.acmeair.model.Flight;
+
+import java.util.List;
+
+// The flights behind one booking request. They are loaded together once and then shared by pricing, seat
+// reservation and seat assignment, so no step goes back to the database for a flight.
+record BookingContext(Flight outbound, Flight returnFlight) {
+
+    static BookingContext of(List<Flight> legs) {
+        return new BookingContext(legs.get(0), legs.size() > 1 ? legs.get(1) : null);
+    }
+
+    boolean isReturn() {
+        return returnFlight != null;
+    }
+
+    List<Flight> legs() {
+        return isReturn() ? List.of(outbound, returnFlight) : List.of(outbound);
+    }
+}
@@ -4,13 +4,16 @@ import com.acmeair.exception.BookingNotFoundException;
 import com.acmeair.exception.NoSeatsAvailableException;
 import com.acmeair.model.*;
 import com.acmeair.repository.BookingRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.ZoneOffset;
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @Transactional
@@ -19,49 +22,38 @@ public class BookingService {
     private final FlightService flightService;
     private final PassengerService passengerService;
     private final SeatAllocationService seatAllocationService;
+    private final IdGenerator idGenerator;
 
     public BookingService(BookingRepository bookingRepository, FlightService flightService,
-                          PassengerService passengerService, SeatAllocationService seatAllocationService) {
+                          PassengerService passengerService, SeatAllocationService seatAllocationService,
+                          IdGenerator idGenerator) {
         this.bookingRepository = bookingRepository;
         this.flightService = flightService;
         this.passengerService = passengerService;
         this.seatAllocationService = seatAllocationService;
+        this.idGenerator = idGenerator;
     }
 
+    @Timed("acmeair.bookings.create")
     public Booking createBooking(FlightType flightType, String flightId, String returnFlightId,
                                  SeatClass seatClass, Passenger passengerData) {
 
-        if (!flightService.hasAvailableSeats(flightId, seatClass)) {
-            throw new NoSeatsAvailableException("No available " + seatClass.getDisplayName() + " seats on flight " + flightId);
+        if (flightType == FlightType.RETURN && (returnFlightId == null || returnFlightId.trim().isEmpty())) {
+            throw new IllegalArgumentException("Return flight ID is required for return flights");
         }
 
-        if (flightType == FlightType.RETURN) {
-            if (returnFlightId == null || returnFlightId.trim().isEmpty()) {
-                throw new IllegalArgumentException("Return flight ID is required for return flights");
-            }
-            if (!flightService.hasAvailableSeats(returnFlightId, seatClass)) {
-                throw new NoSeatsAvailableException("No available " + seatClass.getDisplayName() + " seats on return flight " + returnFlightId);
-            }
-        }
+        BookingContext context = loadContext(flightType, flightId, returnFlightId);
+        reserveSeats(context, seatClass, 1);
 
         Passenger passenger = passengerService.createPassenger(passengerData);
-        Flight outboundFlight = flightService.getFlightById(flightId);
-        Flight returnFlight = (returnFlightId != null) ? flightService.getFlightById(returnFlightId) : null;
-        String seatNumber = seatAllocationService.allocateSeat(outboundFlight, seatClass);
-        String returnSeatNumber = (returnFlight != null) ?
-                seatAllocationService.allocateSeat(returnFlight, seatClass) : null;
-        BigDecimal outboundPrice = flightService.getPrice(flightId, seatClass);
-        BigDecimal totalPrice = outboundPrice;
-
-        if (returnFlight != null) {
-            BigDecimal returnPrice = flightService.getPrice(returnFlightId, seatClass);
-            totalPrice = totalPrice.add(returnPrice);
-        }
+        String seatNumber = seatAllocationService.allocateSeat(context.outbound(), seatClass);
+        String returnSeatNumber = context.isReturn() ?
+                seatAllocationService.allocateSeat(context.returnFlight(), seatClass) : null;
 
         Booking booking = new Booking(
                 generateBookingId(),
                 flightId,
-                returnFlightId,
+                context.isReturn() ? returnFlightId : null,
                 passenger,
                 ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime(),
                 BookingStatus.CONFIRMED,
@@ -69,17 +61,54 @@ public class BookingService {
                 flightType,
                 seatNumber,
                 returnSeatNumber,
-                totalPrice
+                pricePerPassenger(context, seatClass)
         );
 
-        flightService.updateAvailableSeats(flightId, seatClass, 1);
-        if (returnFlightId != null) {
-            flightService.updateAvailableSeats(returnFlightId, seatClass, 1);
+        return bookingRepository.save(booking);
+    }
+
+    // The whole group takes one conditional seat-count update across its legs and seats are assigned as adjacent blocks,
+    // so either every passenger is booked together or the transaction rolls back with nothing reserved.
+    @Timed("acmeair.bookings.create-group")
+    public List<Booking> createGroupBooking(FlightType flightType, String flightId, String returnFlightId,
+                                            SeatClass seatClass, List<Passenger> passengerData) {
+
+        if (flightType == FlightType.RETURN && (returnFlightId == null || returnFlightId.trim().isEmpty())) {
+            throw new IllegalArgumentException("Return flight ID is required for return flights");
         }
 
-        return bookingRepository.save(booking);
+        BookingContext context = loadContext(flightType, flightId, returnFlightId);
+        int groupSize = passengerData.size();
+
+        reserveSeats(context, seatClass, groupSize);
+
+        List<String> seatNumbers = seatAllocationService.allocateSeats(context.outbound(), seatClass, groupSize);
+        List<String> returnSeatNumbers = context.isReturn() ?
+                seatAllocationService.allocateSeats(context.returnFlight(), seatClass, groupSize) : null;
+        BigDecimal pricePerPassenger = pricePerPassenger(context, seatClass);
+
+        LocalDateTime bookingTime = ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime();
+        List<Booking> bookings = new ArrayList<>(groupSize);
+        for (int i = 0; i < groupSize; i++) {
+            bookings.add(new Booking(
+                    generateBookingId(),
+                    flightId,
+                    context.isReturn() ? returnFlightId : null,
+                    passengerService.createPassenger(passengerData.get(i)),
+                    bookingTime,
+                    BookingStatus.CONFIRMED,
+                    seatClass,
+                    flightType,
+                    seatNumbers.get(i),
+                    (returnSeatNumbers != null) ? returnSeatNumbers.get(i) : null,
+                    pricePerPassenger
+            ));
+        }
+
+        return bookingRepository.saveAll(bookings);
     }
 
+    @Timed("acmeair.bookings.update-passenger")
     public Booking updatePassengerDetails(String bookingId, Passenger updatedPassenger) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking with ID " + bookingId + " does not exist"));
@@ -99,6 +128,7 @@ public class BookingService {
         return bookingRepository.save(booking);
     }
 
+    @Timed("acmeair.bookings.cancel")
     public void cancelBooking(String bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking with ID " + bookingId + " does not exist"));
@@ -109,19 +139,44 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
-        flightService.increaseAvailableSeats(booking.getFlightId(), booking.getSeatClass(), 1);
-        if (booking.getReturnFlightId() != null) {
-            flightService.increaseAvailableSeats(booking.getReturnFlightId(), booking.getSeatClass(), 1);
+        // The legs tell the search cache which route and date to refresh
+        List<String> flightIds = booking.getReturnFlightId() == null
+                ? List.of(booking.getFlightId()) : List.of(booking.getFlightId(), booking.getReturnFlightId());
+        BookingContext context = BookingContext.of(flightService.getFlightsById(flightIds));
+        flightService.increaseAvailableSeats(context.outbound(), booking.getSeatClass(), 1);
+        seatAllocationService.releaseSeat(booking.getFlightId(), booking.getSeatNumber());
+        if (context.isReturn()) {
+            flightService.increaseAvailableSeats(context.returnFlight(), booking.getSeatClass(), 1);
+            seatAllocationService.releaseSeat(booking.getReturnFlightId(), booking.getReturnSeatNumber());
         }
     }
 
+    @Timed("acmeair.bookings.get")
     @Transactional(readOnly = true)
     public Booking getBookingById(String id) {
         return bookingRepository.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException("Booking with ID " + id + " does not exist"));
     }
 
+    // Both legs are read with one query and then reserved with one conditional update each
+    private BookingContext loadContext(FlightType flightType, String flightId, String returnFlightId) {
+        List<String> flightIds = (flightType == FlightType.RETURN) ? List.of(flightId, returnFlightId) : List.of(flightId);
+        return BookingContext.of(flightService.getFlightsById(flightIds));
+    }
+
+    private void reserveSeats(BookingContext context, SeatClass seatClass, int seats) {
+        flightService.reserveSeatsOnLegs(context.legs(), seatClass, seats).ifPresent(flightId -> {
+            String leg = flightId.equals(context.outbound().getId()) ? "flight " : "return flight ";
+            throw new NoSeatsAvailableException("No available " + seatClass.getDisplayName() + " seats on " + leg + flightId);
+        });
+    }
+
+    private BigDecimal pricePerPassenger(BookingContext context, SeatClass seatClass) {
+        BigDecimal price = flightService.getPrice(context.outbound(), seatClass);
+        return context.isReturn() ? price.add(flightService.getPrice(context.returnFlight(), seatClass)) : price;
+    }
+
     private String generateBookingId() {
-        return "BK" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.next("BK");
     }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.acmeair.service;
 
 import com.acmeair.dto.BookingRequest;
+import com.acmeair.dto.FlightSelection;
+import com.acmeair.dto.GroupBookingRequest;
 import com.acmeair.model.FlightType;
+import com.acmeair.model.Passenger;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Service
 public class BookingValidatorService {
 
@@ -13,7 +19,14 @@ public class BookingValidatorService {
         validateFlightDifference(bookingRequest);
     }
 
-    private void validateReturnFlightRequirements(BookingRequest bookingRequest) {
+    public void validateGroupBookingRequest(GroupBookingRequest groupBookingRequest) {
+        validateReturnFlightRequirements(groupBookingRequest);
+        validateOneWayFlightRequirements(groupBookingRequest);
+        validateFlightDifference(groupBookingRequest);
+        validateDistinctPassports(groupBookingRequest);
+    }
+
+    private void validateReturnFlightRequirements(FlightSelection bookingRequest) {
         if (bookingRequest.getFlightType() == FlightType.RETURN) {
             if (bookingRequest.getReturnFlightId() == null || bookingRequest.getReturnFlightId().trim().isEmpty()) {
                 throw new IllegalArgumentException("Return flight ID is required for return flights");
@@ -21,17 +34,26 @@ public class BookingValidatorService {
         }
     }
 
-    private void validateOneWayFlightRequirements(BookingRequest bookingRequest) {
+    private void validateOneWayFlightRequirements(FlightSelection bookingRequest) {
         if (bookingRequest.getFlightType() == FlightType.ONE_WAY &&
                 bookingRequest.getReturnFlightId() != null && !bookingRequest.getReturnFlightId().trim().isEmpty()) {
             throw new IllegalArgumentException("Return flight ID should not be provided for one-way flights");
         }
     }
 
-    private void validateFlightDifference(BookingRequest bookingRequest) {
+    private void validateFlightDifference(FlightSelection bookingRequest) {
         if (bookingRequest.getFlightType() == FlightType.RETURN &&
                 bookingRequest.getFlightId().equals(bookingRequest.getReturnFlightId())) {
             throw new IllegalArgumentException("Outbound and return flights cannot be the same");
         }
     }
-}
\ No newline at end of file
+
+    private void validateDistinctPassports(GroupBookingRequest groupBookingRequest) {
+        Set<String> passports = new HashSet<>();
+        for (Passenger passenger : groupBookingRequest.getPassengers()) {
+            if (!passports.add(passenger.getPassportNumber())) {
+                throw new IllegalArgumentException("Passport number " + passenger.getPassportNumber() + " appears more than once in the group");
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.acmeair.service;
+
+import com.acmeair.dto.FlightResponseDto;
+import com.acmeair.dto.SeatClasses;
+import com.acmeair.exception.FlightNotFoundException;
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import com.acmeair.repository.FlightRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+
+// Flight details keyed by flight ID, each with an ETag over its JSON so unchanged polls can be answered with a 304.
+// Seat changes on this node evict the entry once they commit and the TTL bounds how long a change made on another
+// node can go unseen. With write-behind inventory the row lags until the next flush, so availability is taken from
+// the in-memory counters instead.
+@Component
+public class FlightDetailsCache implements MeterBinder {
+    private final FlightRepository flightRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final ObjectWriter flightWriter;
+    private final Cache<String, FlightDetails> details;
+
+    public FlightDetailsCache(FlightRepository flightRepository, SeatInventoryService seatInventoryService,
+                              ObjectMapper objectMapper,
+                              @Value("${acme-air.flights.details-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${acme-air.flights.details-cache.ttl:5s}") Duration ttl) {
+        this.flightRepository = flightRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.flightWriter = objectMapper.writerFor(FlightResponseDto.class);
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public record FlightDetails(FlightResponseDto flight, String etag) {}
+
+    public FlightDetails get(String flightId) {
+        return details.get(flightId, this::load);
+    }
+
+    public void invalidateAfterCommit(String flightId) {
+        TransactionHooks.afterCommit(() -> details.invalidate(flightId));
+    }
+
+    void invalidate(String flightId) {
+        details.invalidate(flightId);
+    }
+
+    private FlightDetails load(String flightId) {
+        Flight entity = flightRepository.findById(flightId)
+                .orElseThrow(() -> new FlightNotFoundException("Flight with ID " + flightId + " does not exist"));
+        FlightResponseDto flight = new FlightResponseDto(entity);
+        if (seatInventoryService.isWriteBehind()) {
+            applyInMemoryAvailability(flight);
+        }
+        try {
+            return new FlightDetails(flight, "\"" + DigestUtils.md5DigestAsHex(flightWriter.writeValueAsBytes(flight)) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Flight " + flightId + " cannot be serialized", e);
+        }
+    }
+
+    // The entity may be managed, so the counters only ever go on the DTO; set on the entity they would be flushed
+    // over the row
+    private void applyInMemoryAvailability(FlightResponseDto flight) {
+        int economy = seatInventoryService.getAvailableSeats(flight.getId(), SeatClass.ECONOMY);
+        int premiumEconomy = seatInventoryService.getAvailableSeats(flight.getId(), SeatClass.PREMIUM_ECONOMY);
+        int business = seatInventoryService.getAvailableSeats(flight.getId(), SeatClass.BUSINESS);
+        int firstClass = seatInventoryService.getAvailableSeats(flight.getId(), SeatClass.FIRST_CLASS);
+        SeatClasses seats = flight.getSeats();
+        seats.getEconomy().setAvailableSeats(economy);
+        seats.getPremiumEconomy().setAvailableSeats(premiumEconomy);
+        seats.getBusiness().setAvailableSeats(business);
+        seats.getFirstClass().setAvailableSeats(firstClass);
+        flight.setTotalAvailableSeats(economy + premiumEconomy + business + firstClass);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, details, "flight-details");
+    }
+}
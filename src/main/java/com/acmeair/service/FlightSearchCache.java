@@ -0,0 +1,133 @@
+package com.acmeair.service;
+
+import com.acmeair.dto.FlightView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Result pages for one search leg. Entries hold the pending future, so concurrent misses for the same query share one
+// database round trip. Each key carries the generation of its (origin, destination, date) partition; a seat change
+// bumps the generation, which orphans every cached page of that partition at once (including a load still in flight)
+// and leaves them for the size-bounded W-TinyLFU eviction to reclaim. The caller names the partition from the flight
+// it changed, so the bump does not depend on a page of it having been cached yet.
+// Every caller gets its own dependent copy of the shared load, so cancelling or timing out one search's leg never
+// reaches the other searches waiting on it. The load itself is only cancelled once the last waiter has left.
+@Component
+public class FlightSearchCache implements MeterBinder {
+    private final boolean enabled;
+    private final AsyncCache<Key, Page<FlightView>> pages;
+    private final ConcurrentMap<PartitionKey, Long> generations = new ConcurrentHashMap<>();
+
+    public FlightSearchCache(@Value("${acme-air.search.result-cache.enabled:true}") boolean enabled,
+                             @Value("${acme-air.search.result-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${acme-air.search.result-cache.ttl:5s}") Duration ttl) {
+        this.enabled = enabled;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    record PartitionKey(String origin, String destination, LocalDate date) {}
+
+    public record Query(PartitionKey partition, BigDecimal minPrice, BigDecimal maxPrice, boolean directOnly,
+                        int page, int size, Sort sort) {
+        // Equal searches must produce equal keys: 200 and 200.00 are the same bound, and null means no direct filter
+        public static Query of(String origin, String destination, LocalDate date, BigDecimal minPrice,
+                               BigDecimal maxPrice, Boolean directFlightsOnly, int page, int size, Sort sort) {
+            return new Query(new PartitionKey(origin, destination, date), normalize(minPrice), normalize(maxPrice),
+                    Boolean.TRUE.equals(directFlightsOnly), page, size, sort);
+        }
+
+        private static BigDecimal normalize(BigDecimal price) {
+            return price == null ? null : price.stripTrailingZeros();
+        }
+    }
+
+    private record Key(Query query, long generation) {}
+
+    // A cached page load and the number of searches still waiting for it. The count is retired to -1 when the load is
+    // cancelled, so a search that finds the entry afterwards starts a new load instead of joining a dead one.
+    private static final class SharedLoad extends CompletableFuture<Page<FlightView>> {
+        private final CompletableFuture<Page<FlightView>> load;
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        SharedLoad(CompletableFuture<Page<FlightView>> load) {
+            this.load = load;
+            load.whenComplete((page, failure) -> {
+                if (failure == null) {
+                    complete(page);
+                } else {
+                    completeExceptionally(failure);
+                }
+            });
+        }
+
+        boolean addWaiter() {
+            return waiters.getAndUpdate(count -> count < 0 ? count : count + 1) >= 0;
+        }
+
+        void removeWaiter() {
+            if (waiters.decrementAndGet() == 0 && !isDone() && waiters.compareAndSet(0, -1)) {
+                load.cancel(true);
+            }
+        }
+    }
+
+    public CompletableFuture<Page<FlightView>> get(Query query, Function<Query, CompletableFuture<Page<FlightView>>> loader) {
+        if (!enabled) {
+            return loader.apply(query);
+        }
+        Key key = new Key(query, generations.getOrDefault(query.partition(), 0L));
+        while (true) {
+            SharedLoad shared = (SharedLoad) pages.get(key, (k, executor) -> new SharedLoad(loader.apply(k.query())));
+            if (shared.isDone()) {
+                return shared.copy();
+            }
+            if (shared.addWaiter()) {
+                CompletableFuture<Page<FlightView>> copy = shared.copy();
+                copy.whenComplete((page, failure) -> shared.removeWaiter());
+                return copy;
+            }
+            pages.asMap().remove(key, shared);
+        }
+    }
+
+    public void onSeatsChanged(String origin, String destination, LocalDate departureDate) {
+        if (!enabled) {
+            return;
+        }
+        PartitionKey partition = new PartitionKey(origin, destination, departureDate);
+        TransactionHooks.afterCommit(() -> generations.merge(partition, 1L, Long::sum));
+    }
+
+    // Searches for past dates are rejected, so their partitions will not be looked up again
+    @Scheduled(fixedDelayString = "${acme-air.search.result-cache.cleanup-interval-millis:3600000}")
+    public void forgetPastPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        generations.keySet().removeIf(partition -> partition.date().isBefore(today.minusDays(1)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages.synchronous(), "flight-search");
+    }
+}
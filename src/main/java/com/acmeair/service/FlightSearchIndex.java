@@ -0,0 +1,177 @@
+package com.acmeair.service;
+
+import com.acmeair.dto.FlightView;
+import com.acmeair.model.SeatClass;
+import com.acmeair.repository.FlightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Component
+public class FlightSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(FlightSearchIndex.class);
+
+    private final FlightRepository flightRepository;
+    private final boolean enabled;
+    private final Object writeLock = new Object();
+
+    private volatile ConcurrentMap<PartitionKey, Partition> partitions = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<String, FlightView> flightsById = new ConcurrentHashMap<>();
+    private volatile LocalDate coveredFrom;
+
+    public FlightSearchIndex(FlightRepository flightRepository,
+                             @Value("${acme-air.search.in-memory-index.enabled:false}") boolean enabled) {
+        this.flightRepository = flightRepository;
+        this.enabled = enabled;
+    }
+
+    record PartitionKey(String origin, String destination, LocalDate date) {
+        static PartitionKey of(FlightView flight) {
+            return new PartitionKey(flight.origin(), flight.destination(), flight.departureTime().toLocalDate());
+        }
+    }
+
+    public boolean covers(LocalDate date) {
+        LocalDate from = coveredFrom;
+        return enabled && from != null && !date.isBefore(from);
+    }
+
+    public Page<FlightView> search(String origin, String destination, LocalDate date,
+                               BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
+                               Pageable pageable) {
+        Partition partition = partitions.get(new PartitionKey(origin, destination, date));
+        if (partition == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        long minCents = minPrice == null ? Long.MIN_VALUE : minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+        long maxCents = maxPrice == null ? Long.MAX_VALUE : maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+        boolean directOnly = Boolean.TRUE.equals(directFlightsOnly);
+
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("departureTime"));
+        int[] rows = "economyPrice".equals(order.getProperty()) ? partition.byPrice : partition.byDeparture;
+        boolean descending = order.isDescending();
+
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
+        List<FlightView> content = new ArrayList<>(Math.min(pageSize, rows.length));
+        int matched = 0;
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[descending ? rows.length - 1 - i : i];
+            long cents = partition.economyCents[row];
+            if (cents < minCents || cents > maxCents || (directOnly && !partition.direct[row])) {
+                continue;
+            }
+            if (matched >= offset && content.size() < pageSize) {
+                content.add(partition.flights[row]);
+            }
+            matched++;
+        }
+        return new PageImpl<>(content, pageable, matched);
+    }
+
+    // Seat counts are applied in memory once the booking transaction commits instead of re-reading the row.
+    // The version bump mirrors the conditional UPDATE so a concurrent reload cannot roll the change back.
+    public void onSeatsChanged(String flightId, SeatClass seatClass, int delta) {
+        if (!enabled) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> adjustSeats(flightId, seatClass, delta));
+    }
+
+    void adjustSeats(String flightId, SeatClass seatClass, int delta) {
+        synchronized (writeLock) {
+            FlightView current = flightsById.get(flightId);
+            if (current == null) {
+                return;
+            }
+            FlightView updated = current.withSeatChange(seatClass, delta);
+
+            PartitionKey key = PartitionKey.of(updated);
+            partitions.put(key, partitions.get(key).replace(updated));
+            flightsById.put(flightId, updated);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${acme-air.search.in-memory-index.reload-interval-millis:300000}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate from = LocalDate.now(ZoneOffset.UTC);
+        List<FlightView> loaded;
+        try {
+            loaded = flightRepository.findFlightViewsDepartingFrom(from.atStartOfDay());
+        } catch (RuntimeException e) {
+            log.warn("Failed to reload flight search index, keeping previous snapshot: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (writeLock) {
+            ConcurrentMap<String, FlightView> byId = new ConcurrentHashMap<>(loaded.size() * 2);
+            for (FlightView flight : loaded) {
+                FlightView indexed = flightsById.get(flight.id());
+                byId.put(flight.id(), indexed != null && indexed.version() > flight.version() ? indexed : flight);
+            }
+            ConcurrentMap<PartitionKey, Partition> byKey = byId.values().stream()
+                    .collect(Collectors.groupingByConcurrent(PartitionKey::of,
+                            Collectors.collectingAndThen(Collectors.toList(), Partition::new)));
+            flightsById = byId;
+            partitions = byKey;
+            coveredFrom = from;
+        }
+        log.info("Loaded {} flights into {} search partitions", loaded.size(), partitions.size());
+    }
+
+    // Immutable column store for one route and day. Rows are ordered by departure time, and byPrice holds the
+    // row numbers ordered by economy price, so either sort is a straight walk with no comparisons at query time.
+    private static final class Partition {
+        private final FlightView[] flights;
+        private final long[] economyCents;
+        private final boolean[] direct;
+        private final int[] byDeparture;
+        private final int[] byPrice;
+
+        private Partition(List<FlightView> rows) {
+            flights = rows.stream()
+                    .sorted(Comparator.comparing(FlightView::departureTime).thenComparing(FlightView::id))
+                    .toArray(FlightView[]::new);
+            economyCents = new long[flights.length];
+            direct = new boolean[flights.length];
+            for (int i = 0; i < flights.length; i++) {
+                economyCents[i] = flights[i].economyPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+                direct[i] = flights[i].direct();
+            }
+            byDeparture = IntStream.range(0, flights.length).toArray();
+            byPrice = IntStream.range(0, flights.length).boxed()
+                    .sorted(Comparator.<Integer>comparingLong(i -> economyCents[i]).thenComparingInt(i -> i))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private Partition replace(FlightView flight) {
+            List<FlightView> rows = new ArrayList<>(Arrays.asList(flights));
+            rows.replaceAll(existing -> existing.id().equals(flight.id()) ? flight : existing);
+            return new Partition(rows);
+        }
+    }
+}
@@ -1,53 +1,107 @@
 package com.acmeair.service;
 
+import com.acmeair.dto.FlightSearchCursor;
 import com.acmeair.dto.FlightSearchResponse;
+import com.acmeair.dto.FlightView;
 import com.acmeair.exception.FlightNotFoundException;
+import com.acmeair.exception.NoSeatsAvailableException;
+import com.acmeair.exception.SearchTimeoutException;
 import com.acmeair.model.Flight;
 import com.acmeair.model.FlightType;
 import com.acmeair.model.SeatClass;
 import com.acmeair.repository.FlightRepository;
+import com.acmeair.repository.FlightSpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
 public class FlightService {
     private final FlightRepository flightRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightDetailsCache flightDetailsCache;
+    private final FlightSearchCache flightSearchCache;
+    private final Duration legTimeout;
+    private final TransactionTemplate searchTransaction;
+    private final ExecutorService flightSearchExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("flight-search-", 0).factory());
 
-    public FlightService(FlightRepository flightRepository) {
+    public FlightService(FlightRepository flightRepository, SeatInventoryService seatInventoryService,
+                         FlightSearchIndex flightSearchIndex, FlightDetailsCache flightDetailsCache,
+                         FlightSearchCache flightSearchCache, PlatformTransactionManager transactionManager,
+                         @Value("${acme-air.search.leg-timeout:5s}") Duration legTimeout) {
         this.flightRepository = flightRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.flightSearchIndex = flightSearchIndex;
+        this.flightDetailsCache = flightDetailsCache;
+        this.flightSearchCache = flightSearchCache;
+        this.legTimeout = legTimeout;
+        // Spring passes the time left in the transaction to every query as jakarta.persistence.query.timeout
+        this.searchTransaction = new TransactionTemplate(transactionManager);
+        this.searchTransaction.setReadOnly(true);
+        this.searchTransaction.setTimeout((int) Math.max(1, Math.ceilDiv(legTimeout.toMillis(), 1000)));
     }
 
+    @PreDestroy
+    void shutdownSearchExecutor() {
+        flightSearchExecutor.close();
+    }
+
+    // Runs without a surrounding transaction so each leg only holds a connection while its own queries run
+    @Timed("acmeair.flights.search")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FlightSearchResponse searchFlights(FlightType flightType, String departureAirport, String arrivalAirport,
                                               LocalDate departureDate, LocalDate returnDate,
                                               BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
                                               int page, int size, String sortBy, String sortDirection) {
 
-        if (flightType == FlightType.RETURN && returnDate == null) {
-            throw new IllegalArgumentException("Return date is required for return flights");
-        }
-
-        if (flightType == FlightType.RETURN && !returnDate.isAfter(departureDate)) {
-            throw new IllegalArgumentException("Return date must be after departure date");
-        }
-
-        Page<Flight> outboundPage = searchFlightsForDate(departureAirport, arrivalAirport, departureDate,
-                minPrice, maxPrice, directFlightsOnly,
-                page, size, sortBy, sortDirection);
+        validateReturnDate(flightType, departureDate, returnDate);
 
-        Page<Flight> returnPage = null;
+        Page<FlightView> outboundPage;
+        Page<FlightView> returnPage = null;
         if (flightType == FlightType.RETURN) {
-            returnPage = searchFlightsForDate(arrivalAirport, departureAirport, returnDate,
+            CompletableFuture<Page<FlightView>> outbound = searchLegCached(departureAirport, arrivalAirport,
+                    departureDate, minPrice, maxPrice, directFlightsOnly, page, size, sortBy, sortDirection);
+            CompletableFuture<Page<FlightView>> inbound = searchLegCached(arrivalAirport, departureAirport,
+                    returnDate, minPrice, maxPrice, directFlightsOnly, page, size, sortBy, sortDirection);
+            outboundPage = awaitLeg(outbound, "outbound", inbound);
+            returnPage = awaitLeg(inbound, "return");
+        } else {
+            outboundPage = awaitLeg(searchLegCached(departureAirport, arrivalAirport, departureDate,
                     minPrice, maxPrice, directFlightsOnly,
-                    page, size, sortBy, sortDirection);
+                    page, size, sortBy, sortDirection), "outbound");
         }
 
         return new FlightSearchResponse(
@@ -63,18 +117,202 @@ public class FlightService {
         );
     }
 
-    private Page<Flight> searchFlightsForDate(String departureAirport, String arrivalAirport, LocalDate date,
-                                              BigDecimal minPrice, BigDecimal maxPrice,
-                                              Boolean directFlightsOnly, int page, int size,
-                                              String sortBy, String sortDirection) {
+    // Keyset mode: each page seeks past the (sort key, id) of the previous page's last row and fetches size + 1
+    // rows to learn whether another page exists, so there is no count query and no OFFSET to skip over.
+    @Timed("acmeair.flights.scroll")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FlightSearchResponse scrollFlights(FlightType flightType, String departureAirport, String arrivalAirport,
+                                              LocalDate departureDate, LocalDate returnDate,
+                                              BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
+                                              int size, String sortBy, String sortDirection,
+                                              String cursor, String returnCursor) {
+
+        validateReturnDate(flightType, departureDate, returnDate);
+        Sort sort = createSort(sortBy, sortDirection);
+
+        Window<Flight> outboundWindow;
+        Window<Flight> returnWindow = null;
+        if (flightType == FlightType.RETURN) {
+            CompletableFuture<Window<Flight>> outbound = searchLegAsync(() -> scrollFlightsForDate(departureAirport,
+                    arrivalAirport, departureDate, minPrice, maxPrice, directFlightsOnly, size, sort, cursor));
+            CompletableFuture<Window<Flight>> inbound = searchLegAsync(() -> scrollFlightsForDate(arrivalAirport,
+                    departureAirport, returnDate, minPrice, maxPrice, directFlightsOnly, size, sort, returnCursor));
+            outboundWindow = awaitLeg(outbound, "outbound", inbound);
+            returnWindow = awaitLeg(inbound, "return");
+        } else {
+            outboundWindow = scrollFlightsForDate(departureAirport, arrivalAirport, departureDate,
+                    minPrice, maxPrice, directFlightsOnly, size, sort, cursor);
+        }
+
+        return new FlightSearchResponse(
+                flightType,
+                outboundWindow.map(FlightView::of).getContent(),
+                returnWindow != null ? returnWindow.map(FlightView::of).getContent() : null,
+                size,
+                nextCursor(outboundWindow, sort),
+                returnWindow != null ? nextCursor(returnWindow, sort) : null,
+                cursor == null || cursor.isBlank(),
+                !outboundWindow.hasNext()
+        );
+    }
 
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
+    // Hands every matching flight to the sink as it is read, outbound leg first, so neither leg is ever held in
+    // memory. The read-only transaction keeps the cursor open until the sink has consumed the last row.
+    @Timed("acmeair.flights.stream")
+    public long streamFlights(FlightType flightType, String departureAirport, String arrivalAirport,
+                              LocalDate departureDate, LocalDate returnDate,
+                              BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
+                              String sortBy, String sortDirection, Consumer<FlightView> sink) {
+
+        validateReturnDate(flightType, departureDate, returnDate);
         Sort sort = createSort(sortBy, sortDirection);
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Sort.Order order = sort.iterator().next();
+        Sort stable = sort.and(Sort.by(order.getDirection(), "id"));
+
+        long streamed = streamFlightsForDate(departureAirport, arrivalAirport, departureDate,
+                minPrice, maxPrice, directFlightsOnly, stable, sink);
+        if (flightType == FlightType.RETURN) {
+            streamed += streamFlightsForDate(arrivalAirport, departureAirport, returnDate,
+                    minPrice, maxPrice, directFlightsOnly, stable, sink);
+        }
+        return streamed;
+    }
+
+    private long streamFlightsForDate(String departureAirport, String arrivalAirport, LocalDate date,
+                                      BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
+                                      Sort sort, Consumer<FlightView> sink) {
+        try (Stream<FlightView> flights = flightRepository.streamFlightViews(departureAirport, arrivalAirport,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), minPrice, maxPrice, directFlightsOnly, sort)) {
+            long streamed = 0;
+            for (Iterator<FlightView> rows = flights.iterator(); rows.hasNext(); streamed++) {
+                sink.accept(rows.next());
+            }
+            return streamed;
+        }
+    }
+
+    private Window<Flight> scrollFlightsForDate(String departureAirport, String arrivalAirport, LocalDate date,
+                                                BigDecimal minPrice, BigDecimal maxPrice, Boolean directFlightsOnly,
+                                                int size, Sort sort, String cursor) {
+        Sort.Order order = sort.iterator().next();
+        ScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isBlank()) {
+            FlightSearchCursor decoded = FlightSearchCursor.decode(cursor);
+            if (!decoded.sortProperty().equals(order.getProperty()) || decoded.direction() != order.getDirection()) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            position = ScrollPosition.forward(decoded.toKeys());
+        }
+
+        ScrollPosition start = position;
+        return flightRepository.findBy(
+                FlightSpecifications.search(departureAirport, arrivalAirport, date.atStartOfDay(),
+                        date.plusDays(1).atStartOfDay(), minPrice, maxPrice, directFlightsOnly),
+                query -> query.sortBy(sort.and(Sort.by(order.getDirection(), "id"))).limit(size).scroll(start));
+    }
 
-        return flightRepository.findFlights(departureAirport, arrivalAirport, startOfDay, endOfDay,
-                minPrice, maxPrice, directFlightsOnly, pageable);
+    private String nextCursor(Window<Flight> window, Sort sort) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        Sort.Order order = sort.iterator().next();
+        KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        return FlightSearchCursor.of(order.getProperty(), order.getDirection(), last.getKeys()).encode();
+    }
+
+    private void validateReturnDate(FlightType flightType, LocalDate departureDate, LocalDate returnDate) {
+        if (flightType == FlightType.RETURN && returnDate == null) {
+            throw new IllegalArgumentException("Return date is required for return flights");
+        }
+
+        if (flightType == FlightType.RETURN && !returnDate.isAfter(departureDate)) {
+            throw new IllegalArgumentException("Return date must be after departure date");
+        }
+    }
+
+    // Legs are cached per direction, so a one-way search and the matching leg of a return search share an entry
+    private CompletableFuture<Page<FlightView>> searchLegCached(String departureAirport, String arrivalAirport,
+                                                                LocalDate date, BigDecimal minPrice, BigDecimal maxPrice,
+                                                                Boolean directFlightsOnly, int page, int size,
+                                                                String sortBy, String sortDirection) {
+        Sort sort = createSort(sortBy, sortDirection);
+        FlightSearchCache.Query query = FlightSearchCache.Query.of(departureAirport, arrivalAirport, date,
+                minPrice, maxPrice, directFlightsOnly, page, size, sort);
+        // The timeout goes on this caller's own future, so a search that joins a shared load late gets its full wait
+        return flightSearchCache.get(query, missed -> {
+            if (flightSearchIndex.covers(date)) {
+                return CompletableFuture.completedFuture(flightSearchIndex.search(departureAirport, arrivalAirport,
+                        date, minPrice, maxPrice, directFlightsOnly, PageRequest.of(page, size, sort)));
+            }
+            return runLeg(() -> searchFlightsForDate(departureAirport, arrivalAirport, date,
+                    minPrice, maxPrice, directFlightsOnly, PageRequest.of(page, size, sort)));
+        }).orTimeout(legTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Each leg runs in its own read-only transaction, so its queries carry the leg timeout and the database stops a
+    // leg the caller has given up on. A leg that fails, times out or is cancelled also cancels its running statement.
+    private <T> CompletableFuture<T> searchLegAsync(Supplier<T> leg) {
+        return runLeg(leg).orTimeout(legTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private <T> CompletableFuture<T> runLeg(Supplier<T> leg) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Runnable> canceller = new AtomicReference<>();
+        flightSearchExecutor.execute(() -> {
+            try {
+                result.complete(searchTransaction.execute(status -> {
+                    canceller.set(flightRepository.queryCanceller());
+                    return result.isDone() ? null : leg.get();
+                }));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, failure) -> {
+            Runnable cancel = canceller.get();
+            if (failure != null && cancel != null) {
+                cancel.run();
+            }
+        });
+        return result;
+    }
+
+    // The other leg is of no use once one has failed, so this search's copy of it is cancelled. An uncached leg or a
+    // cached load with no other waiters then stops its query rather than leaving it holding a connection.
+    private <T> T awaitLeg(CompletableFuture<T> leg, String legName, CompletableFuture<?> otherLeg) {
+        try {
+            return awaitLeg(leg, legName);
+        } catch (RuntimeException e) {
+            otherLeg.cancel(true);
+            throw e;
+        }
+    }
+
+    private <T> T awaitLeg(CompletableFuture<T> leg, String legName) {
+        try {
+            return leg.join();
+        } catch (CancellationException e) {
+            throw new SearchTimeoutException("Searching " + legName + " flights was cancelled");
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw new SearchTimeoutException("Searching " + legName + " flights was cancelled");
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new SearchTimeoutException("Searching " + legName + " flights took longer than "
+                        + legTimeout.toMillis() + " ms");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Page<FlightView> searchFlightsForDate(String departureAirport, String arrivalAirport, LocalDate date,
+                                              BigDecimal minPrice, BigDecimal maxPrice,
+                                              Boolean directFlightsOnly, Pageable pageable) {
+        return flightRepository.findFlightViews(departureAirport, arrivalAirport, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay(), minPrice, maxPrice, directFlightsOnly, pageable);
     }
 
     private Sort createSort(String sortBy, String sortDirection) {
@@ -104,53 +342,81 @@ public class FlightService {
                 sortBy.equals("destination");
     }
 
+    @Timed("acmeair.flights.get")
     public Flight getFlightById(String id) {
         return flightRepository.findById(id)
                 .orElseThrow(() -> new FlightNotFoundException("Flight with ID " + id + " does not exist"));
     }
 
-    @Transactional
-    public void updateAvailableSeats(String flightId, SeatClass seatClass, int seatsToReduce) {
-        Flight flight = getFlightById(flightId);
-
-        switch (seatClass) {
-            case ECONOMY -> flight.setEconomyAvailable(flight.getEconomyAvailable() - seatsToReduce);
-            case PREMIUM_ECONOMY -> flight.setPremiumEconomyAvailable(flight.getPremiumEconomyAvailable() - seatsToReduce);
-            case BUSINESS -> flight.setBusinessAvailable(flight.getBusinessAvailable() - seatsToReduce);
-            case FIRST_CLASS -> flight.setFirstClassAvailable(flight.getFirstClassAvailable() - seatsToReduce);
+    // Every leg in the order given, read with at most one query
+    @Timed("acmeair.flights.get-legs")
+    public List<Flight> getFlightsById(List<String> ids) {
+        List<Flight> flights = flightRepository.findAllByIdInOrder(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            if (flights.get(i) == null) {
+                throw new FlightNotFoundException("Flight with ID " + ids.get(i) + " does not exist");
+            }
         }
+        return flights;
+    }
 
-        flightRepository.save(flight);
+    @Timed("acmeair.flights.details")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FlightDetailsCache.FlightDetails getFlightDetails(String id) {
+        return flightDetailsCache.get(id);
     }
 
+    @Timed("acmeair.flights.reserve-seats")
     @Transactional
-    public void increaseAvailableSeats(String flightId, SeatClass seatClass, int seatsToIncrease) {
-        Flight flight = getFlightById(flightId);
+    public boolean reserveSeats(Flight flight, SeatClass seatClass, int seats) {
+        if (!seatInventoryService.tryReserve(flight.getId(), seatClass, seats)) {
+            return false;
+        }
+        onSeatsChanged(flight, seatClass, -seats);
+        return true;
+    }
 
-        switch (seatClass) {
-            case ECONOMY -> flight.setEconomyAvailable(flight.getEconomyAvailable() + seatsToIncrease);
-            case PREMIUM_ECONOMY -> flight.setPremiumEconomyAvailable(flight.getPremiumEconomyAvailable() + seatsToIncrease);
-            case BUSINESS -> flight.setBusinessAvailable(flight.getBusinessAvailable() + seatsToIncrease);
-            case FIRST_CLASS -> flight.setFirstClassAvailable(flight.getFirstClassAvailable() + seatsToIncrease);
+    // Returns the first leg without enough seats, in which case the transaction must roll back
+    @Timed("acmeair.flights.reserve-seats")
+    @Transactional
+    public Optional<String> reserveSeatsOnLegs(List<Flight> legs, SeatClass seatClass, int seats) {
+        List<String> flightIds = legs.stream().map(Flight::getId).toList();
+        Optional<String> unavailable = seatInventoryService.tryReserveAll(flightIds, seatClass, seats);
+        if (unavailable.isEmpty()) {
+            legs.forEach(flight -> onSeatsChanged(flight, seatClass, -seats));
         }
+        return unavailable;
+    }
 
-        flightRepository.save(flight);
+    @Transactional
+    public void updateAvailableSeats(Flight flight, SeatClass seatClass, int seatsToReduce) {
+        if (!reserveSeats(flight, seatClass, seatsToReduce)) {
+            throw new NoSeatsAvailableException("No available " + seatClass.getDisplayName() + " seats on flight " + flight.getId());
+        }
     }
 
-    public boolean hasAvailableSeats(String flightId, SeatClass seatClass) {
-        Flight flight = getFlightById(flightId);
+    @Transactional
+    public void increaseAvailableSeats(Flight flight, SeatClass seatClass, int seatsToIncrease) {
+        seatInventoryService.release(flight.getId(), seatClass, seatsToIncrease);
+        onSeatsChanged(flight, seatClass, seatsToIncrease);
+    }
 
-        return switch (seatClass) {
-            case ECONOMY -> flight.getEconomyAvailable() > 0;
-            case PREMIUM_ECONOMY -> flight.getPremiumEconomyAvailable() > 0;
-            case BUSINESS -> flight.getBusinessAvailable() > 0;
-            case FIRST_CLASS -> flight.getFirstClassAvailable() > 0;
-        };
+    private void onSeatsChanged(Flight flight, SeatClass seatClass, int delta) {
+        flightSearchIndex.onSeatsChanged(flight.getId(), seatClass, delta);
+        flightDetailsCache.invalidateAfterCommit(flight.getId());
+        flightSearchCache.onSeatsChanged(flight.getOrigin(), flight.getDestination(),
+                flight.getDepartureTime().toLocalDate());
+    }
+
+    public boolean hasAvailableSeats(String flightId, SeatClass seatClass) {
+        return seatInventoryService.hasAvailableSeats(flightId, seatClass);
     }
 
     public BigDecimal getPrice(String flightId, SeatClass seatClass) {
-        Flight flight = getFlightById(flightId);
+        return getPrice(getFlightById(flightId), seatClass);
+    }
 
+    public BigDecimal getPrice(Flight flight, SeatClass seatClass) {
         return switch (seatClass) {
             case ECONOMY -> flight.getEconomyPrice();
             case PREMIUM_ECONOMY -> flight.getPremiumEconomyPrice();
@@ -0,0 +1,86 @@
+package com.acmeair.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 63-bit time-ordered IDs: 41 bits of milliseconds since 2025-01-01, 10 bits of node and 12 bits of sequence.
+// They are rendered as 13 fixed-width Crockford base32 characters, so string order matches creation order and
+// primary key inserts append to the right-hand edge of the index instead of landing on random pages.
+@Component
+public class IdGenerator {
+    private static final Logger log = LoggerFactory.getLogger(IdGenerator.class);
+
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final int ENCODED_LENGTH = 13;
+    static final String DEV_PROFILE = "dev";
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long node;
+    private final LongSupplier clock;
+    // Milliseconds and sequence packed together; a burst that exhausts the sequence borrows the next millisecond
+    private final AtomicLong lastTick = new AtomicLong();
+
+    @Autowired
+    public IdGenerator(@Value("${acme-air.ids.node-id:-1}") int nodeId, Environment environment) {
+        this(nodeId < 0 ? randomNode(environment) : nodeId, System::currentTimeMillis);
+    }
+
+    public IdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    IdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("acme-air.ids.node-id must be between 0 and " + MAX_NODE);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    // Two instances that draw the same random node id can issue the same id within one millisecond, so a random
+    // node id is only picked for a single local instance running under the dev profile
+    static int randomNode(Environment environment) {
+        if (!environment.acceptsProfiles(Profiles.of(DEV_PROFILE))) {
+            throw new IllegalStateException("acme-air.ids.node-id must be set to a value between 0 and " + MAX_NODE
+                    + " that no other instance uses, or the " + DEV_PROFILE + " profile must be active");
+        }
+        int nodeId = ThreadLocalRandom.current().nextInt(MAX_NODE + 1);
+        log.info("No acme-air.ids.node-id configured, using random node id {} under the {} profile", nodeId, DEV_PROFILE);
+        return nodeId;
+    }
+
+    public String next(String prefix) {
+        return prefix + encode(nextId());
+    }
+
+    long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long tick = lastTick.updateAndGet(last -> Math.max(last + 1, now));
+        long millis = tick >>> SEQUENCE_BITS;
+        long sequence = tick & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,187 @@
+package com.acmeair.service;
+
+import com.acmeair.exception.IdempotencyKeyConflictException;
+import com.acmeair.exception.IdempotencyKeyReusedException;
+import com.acmeair.model.Booking;
+import com.acmeair.model.IdempotencyRecord;
+import com.acmeair.repository.IdempotencyRecordRepository;
+import com.acmeair.security.TokenDigest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final BookingService bookingService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inFlightWait;
+    private final Cache<TokenDigest, Completed> completed;
+    private final ConcurrentMap<TokenDigest, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong replays = new AtomicLong();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, BookingService bookingService,
+                              PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                              @Value("${acme-air.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${acme-air.idempotency.in-flight-wait:5s}") Duration inFlightWait,
+                              @Value("${acme-air.idempotency.cache.maximum-size:100000}") long maximumSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.bookingService = bookingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inFlightWait = inFlightWait;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public record Outcome(Booking booking, boolean replayed) {}
+
+    private record Completed(String requestHash, String bookingId) {
+        static Completed of(IdempotencyRecord record) {
+            return new Completed(record.getRequestHash(), record.getBookingId());
+        }
+    }
+
+    // Keys are scoped to the calling API key. A retry is answered from memory, then from the idempotency_keys table;
+    // concurrent retries on this node wait for the first attempt, and a retry racing on another node loses on the
+    // primary key, which rolls its booking back before it is replayed from the winner's record.
+    public Outcome execute(String client, String idempotencyKey, Object request, Supplier<Booking> action) {
+        TokenDigest key = TokenDigest.of(client + "\n" + idempotencyKey);
+        String requestHash = hash(request);
+
+        while (true) {
+            Completed done = completed.getIfPresent(key);
+            if (done != null) {
+                return replay(done, requestHash);
+            }
+
+            CompletableFuture<Void> attempt = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, attempt);
+            if (running != null) {
+                // Whether the first attempt succeeded or failed, look again: replay its booking or try ourselves
+                awaitAttempt(running);
+                continue;
+            }
+
+            try {
+                return executeOnce(key, requestHash, action);
+            } finally {
+                inFlight.remove(key, attempt);
+                attempt.complete(null);
+            }
+        }
+    }
+
+    private Outcome executeOnce(TokenDigest key, String requestHash, Supplier<Booking> action) {
+        String keyHash = HexFormat.of().formatHex(key.toBytes());
+        LocalDateTime now = ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime();
+
+        IdempotencyRecord existing = idempotencyRecordRepository.findById(keyHash).orElse(null);
+        if (existing != null && existing.getCreatedTime().isAfter(now.minus(ttl))) {
+            Completed done = Completed.of(existing);
+            completed.put(key, done);
+            return replay(done, requestHash);
+        }
+
+        Booking booking;
+        try {
+            booking = transactionTemplate.execute(status -> {
+                if (existing != null) {
+                    // Flushed on its own because Hibernate would otherwise run the insert below before the delete
+                    idempotencyRecordRepository.delete(existing);
+                    idempotencyRecordRepository.flush();
+                }
+                Booking created = action.get();
+                idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(keyHash, requestHash, created.getId(), now));
+                return created;
+            });
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord winner = idempotencyRecordRepository.findById(keyHash).orElseThrow(() -> e);
+            Completed done = Completed.of(winner);
+            completed.put(key, done);
+            return replay(done, requestHash);
+        }
+
+        completed.put(key, new Completed(requestHash, booking.getId()));
+        return new Outcome(booking, false);
+    }
+
+    private Outcome replay(Completed done, String requestHash) {
+        if (!done.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency key was already used with a different request body");
+        }
+        replays.incrementAndGet();
+        return new Outcome(bookingService.getBookingById(done.bookingId()), true);
+    }
+
+    private void awaitAttempt(CompletableFuture<Void> running) {
+        try {
+            running.get(inFlightWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("A request with this idempotency key is still in progress");
+        } catch (TimeoutException | ExecutionException e) {
+            throw new IdempotencyKeyConflictException("A request with this idempotency key is still in progress");
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            return HexFormat.of().formatHex(TokenDigest.of(objectMapper.writeValueAsString(request)).toBytes());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be serialized", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${acme-air.idempotency.purge-interval-millis:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime().minus(ttl);
+        Integer purged = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteCreatedBefore(cutoff));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, completed, "idempotency-keys");
+        FunctionCounter.builder("acmeair.bookings.idempotent-replays", replays, AtomicLong::get)
+                .description("Booking requests answered from a previous attempt with the same Idempotency-Key")
+                .register(registry);
+    }
+}
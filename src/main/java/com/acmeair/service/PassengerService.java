@@ -3,10 +3,13 @@ package com.acmeair.service;
 import com.acmeair.model.Passenger;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 @Service
 public class PassengerService {
+    private final IdGenerator idGenerator;
+
+    public PassengerService(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     public Passenger createPassenger(Passenger passengerData) {
         String passengerId = generatePassengerId();
@@ -23,6 +26,6 @@ public class PassengerService {
     }
 
     private String generatePassengerId() {
-        return "P" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.next("P");
     }
 }
\ No newline at end of file
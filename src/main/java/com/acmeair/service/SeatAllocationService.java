@@ -1,45 +1,127 @@
 package com.acmeair.service;
 
+import com.acmeair.exception.NoSeatsAvailableException;
 import com.acmeair.model.Flight;
 import com.acmeair.model.SeatClass;
+import com.acmeair.repository.BookingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
 
+// Seat maps are per node: each one only sees the seats claimed when it was loaded plus the seats this node assigned
+// since. Every assigned seat is also claimed in booking_seats, whose key covers the outbound and return legs alike;
+// that key is what keeps two nodes from committing the same seat. The loser rolls back, re-syncs its map from the
+// table and tries again. Maps of flights nobody books any more expire.
 @Service
-public class SeatAllocationService {
-    private final Random random = new Random();
+public class SeatAllocationService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(SeatAllocationService.class);
+    private static final String SEAT_CLAIMS_TABLE = "booking_seats";
+
+    private final BookingRepository bookingRepository;
+    private final int maxAttempts;
+    private final Cache<String, SeatMap> seatMaps;
+
+    public SeatAllocationService(BookingRepository bookingRepository,
+                                 @Value("${acme-air.seats.seat-map-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${acme-air.seats.seat-map-cache.expire-after-access:30m}") Duration expireAfterAccess,
+                                 @Value("${acme-air.seats.conflict-retries:3}") int conflictRetries) {
+        this.bookingRepository = bookingRepository;
+        this.maxAttempts = conflictRetries + 1;
+        this.seatMaps = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+    }
 
     public String allocateSeat(Flight flight, SeatClass seatClass) {
-        return switch (seatClass) {
-            case ECONOMY -> allocateEconomySeat();
-            case PREMIUM_ECONOMY -> allocatePremiumEconomySeat();
-            case BUSINESS -> allocateBusinessSeat();
-            case FIRST_CLASS -> allocateFirstClassSeat();
-        };
+        return allocateSeats(flight, seatClass, 1).get(0);
+    }
+
+    public List<String> allocateSeats(Flight flight, SeatClass seatClass, int count) {
+        SeatMap seatMap = seatMapFor(flight);
+        List<String> seats = seatMap.allocate(seatClass, count);
+        if (seats.isEmpty()) {
+            throw new NoSeatsAvailableException("No " + seatClass.getDisplayName() + " seats left to assign on flight " + flight.getId());
+        }
+        TransactionHooks.onRollback(() -> seats.forEach(seatMap::release));
+        seats.forEach(seat -> bookingRepository.claimSeat(flight.getId(), seat));
+        return seats;
+    }
+
+    public void releaseSeat(String flightId, String seatNumber) {
+        if (flightId == null || seatNumber == null) {
+            return;
+        }
+        bookingRepository.releaseSeatClaim(flightId, seatNumber);
+        TransactionHooks.afterCommit(() -> {
+            SeatMap seatMap = seatMaps.getIfPresent(flightId);
+            if (seatMap != null) {
+                seatMap.release(seatNumber);
+            }
+        });
+    }
+
+    // Runs a booking transaction, retrying it when another node committed one of the seats it was given first. Must
+    // wrap the outermost transaction: the violation only surfaces on flush, after which that transaction is lost.
+    public <T> T retryOnSeatConflict(List<String> flightIds, Supplier<T> booking) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return booking.get();
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts || !isSeatConflict(e)) {
+                    throw e;
+                }
+                log.debug("Seat taken by another node on flights {}, re-syncing seat maps (attempt {})", flightIds, attempt);
+                flightIds.stream().filter(Objects::nonNull).forEach(this::resync);
+            }
+        }
+    }
+
+    private static boolean isSeatConflict(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (message == null) {
+            return false;
+        }
+        return message.toLowerCase(Locale.ROOT).contains(SEAT_CLAIMS_TABLE);
     }
 
-    private String allocateEconomySeat() {
-        int row = random.nextInt(26) + 10;
-        char seat = (char) ('A' + random.nextInt(6));
-        return row + String.valueOf(seat);
+    // Seats this node holds for bookings still in flight stay taken; only seats committed elsewhere are added
+    private void resync(String flightId) {
+        SeatMap seatMap = seatMaps.getIfPresent(flightId);
+        if (seatMap != null) {
+            occupyBookedSeats(flightId, seatMap);
+        }
     }
 
-    private String allocatePremiumEconomySeat() {
-        int row = random.nextInt(4) + 6;
-        char seat = (char) ('A' + random.nextInt(6));
-        return row + String.valueOf(seat);
+    private SeatMap seatMapFor(Flight flight) {
+        return seatMaps.get(flight.getId(), flightId -> {
+            SeatMap loaded = SeatMap.forFlight(flight);
+            occupyBookedSeats(flightId, loaded);
+            return loaded;
+        });
     }
 
-    private String allocateBusinessSeat() {
-        int row = random.nextInt(3) + 3;
-        char seat = (char) ('A' + random.nextInt(4));
-        return row + String.valueOf(seat);
+    private void occupyBookedSeats(String flightId, SeatMap seatMap) {
+        bookingRepository.findClaimedSeatNumbers(flightId).forEach(seatMap::occupy);
     }
 
-    private String allocateFirstClassSeat() {
-        int row = random.nextInt(2) + 1;
-        char seat = (char) ('A' + random.nextInt(2));
-        return row + String.valueOf(seat);
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, seatMaps, "seat-maps");
     }
-}
\ No newline at end of file
+}
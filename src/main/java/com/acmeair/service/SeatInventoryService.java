@@ -0,0 +1,252 @@
+package com.acmeair.service;
+
+import com.acmeair.dto.FlightView;
+import com.acmeair.exception.FlightNotFoundException;
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import com.acmeair.repository.FlightRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+@Service
+public class SeatInventoryService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(SeatInventoryService.class);
+
+    private final FlightRepository flightRepository;
+    private final boolean writeBehind;
+    private final ConcurrentMap<String, FlightInventory> inventories = new ConcurrentHashMap<>();
+    private final Set<String> dirtyFlights = ConcurrentHashMap.newKeySet();
+    private volatile long[] availableSeatTotals = new long[SeatClass.values().length];
+
+    public SeatInventoryService(FlightRepository flightRepository,
+                                @Value("${acme-air.inventory.write-behind:false}") boolean writeBehind) {
+        this.flightRepository = flightRepository;
+        this.writeBehind = writeBehind;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public boolean hasAvailableSeats(String flightId, SeatClass seatClass) {
+        return getAvailableSeats(flightId, seatClass) > 0;
+    }
+
+    // Write-behind counters run ahead of the row until the next flush; otherwise the row is the only copy
+    public int getAvailableSeats(String flightId, SeatClass seatClass) {
+        if (writeBehind) {
+            return inventoryFor(flightId).available.get(seatClass.ordinal());
+        }
+        return flightRepository.findById(flightId)
+                .map(flight -> FlightView.of(flight).availableSeats(seatClass))
+                .orElseThrow(() -> new FlightNotFoundException("Flight with ID " + flightId + " does not exist"));
+    }
+
+    public boolean tryReserve(String flightId, SeatClass seatClass, int seats) {
+        return writeBehind ? reserveInMemory(flightId, seatClass, seats) : reserveInDatabase(flightId, seatClass, seats);
+    }
+
+    // Reserves the same seats on every leg, one conditional update per leg, and returns the first leg that could not
+    // be reserved, if any. The caller's transaction must then roll back, which undoes the legs that were reserved.
+    public Optional<String> tryReserveAll(List<String> flightIds, SeatClass seatClass, int seats) {
+        return flightIds.stream()
+                .filter(flightId -> !tryReserve(flightId, seatClass, seats))
+                .findFirst();
+    }
+
+    public void release(String flightId, SeatClass seatClass, int seats) {
+        if (writeBehind) {
+            releaseInMemory(flightId, seatClass, seats);
+        } else {
+            flightRepository.releaseSeats(flightId, seatClass, seats);
+        }
+    }
+
+    private boolean reserveInMemory(String flightId, SeatClass seatClass, int seats) {
+        FlightInventory inventory = inventoryFor(flightId);
+        if (!inventory.tryReserve(seatClass, seats)) {
+            return false;
+        }
+        dirtyFlights.add(flightId);
+        TransactionHooks.onRollback(() -> {
+            inventory.release(seatClass, seats);
+            dirtyFlights.add(flightId);
+        });
+        return true;
+    }
+
+    private void releaseInMemory(String flightId, SeatClass seatClass, int seats) {
+        FlightInventory inventory = inventoryFor(flightId);
+        inventory.release(seatClass, seats);
+        dirtyFlights.add(flightId);
+        TransactionHooks.onRollback(() -> {
+            inventory.forceReserve(seatClass, seats);
+            dirtyFlights.add(flightId);
+        });
+    }
+
+    private boolean reserveInDatabase(String flightId, SeatClass seatClass, int seats) {
+        if (flightRepository.reserveSeats(flightId, seatClass, seats) == 0) {
+            if (!flightRepository.existsById(flightId)) {
+                throw new FlightNotFoundException("Flight with ID " + flightId + " does not exist");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Timed("acmeair.inventory.flush")
+    @Scheduled(fixedDelayString = "${acme-air.inventory.flush-interval-millis:500}")
+    public void flush() {
+        for (String flightId : dirtyFlights) {
+            dirtyFlights.remove(flightId);
+            FlightInventory inventory = inventories.get(flightId);
+            if (inventory == null) {
+                continue;
+            }
+
+            int[] deltas = inventory.drainPending();
+            if (isZero(deltas)) {
+                continue;
+            }
+
+            try {
+                flightRepository.adjustAvailableSeats(flightId, deltas[SeatClass.ECONOMY.ordinal()],
+                        deltas[SeatClass.PREMIUM_ECONOMY.ordinal()], deltas[SeatClass.BUSINESS.ordinal()],
+                        deltas[SeatClass.FIRST_CLASS.ordinal()]);
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush seat inventory for flight {}, will retry: {}", flightId, e.getMessage());
+                inventory.restorePending(deltas);
+                dirtyFlights.add(flightId);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    // Summed from the table on a timer rather than per scrape. Write-behind counters reach it on their next flush.
+    @Scheduled(fixedDelayString = "${acme-air.inventory.metrics-refresh-interval-millis:15000}")
+    public void refreshAvailableSeatTotals() {
+        try {
+            FlightRepository.AvailableSeatTotals totals = flightRepository.sumAvailableSeatsDepartingFrom(
+                    ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime());
+            long[] refreshed = new long[SeatClass.values().length];
+            for (SeatClass seatClass : SeatClass.values()) {
+                refreshed[seatClass.ordinal()] = totals.get(seatClass);
+            }
+            availableSeatTotals = refreshed;
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh available seat totals, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Tagged by seat class only; a tag per flight would create a time series for every flight ever booked
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (SeatClass seatClass : SeatClass.values()) {
+            Gauge.builder("acmeair.inventory.seats.available", this,
+                            service -> service.availableSeatTotals[seatClass.ordinal()])
+                    .description("Available seats across flights that have not departed")
+                    .tag("seat_class", seatClass.name())
+                    .register(registry);
+        }
+        if (!writeBehind) {
+            return;
+        }
+        Gauge.builder("acmeair.inventory.flights.tracked", inventories, ConcurrentMap::size)
+                .description("Flights held in the write-behind seat counters")
+                .register(registry);
+        Gauge.builder("acmeair.inventory.flights.pending-flush", dirtyFlights, Set::size)
+                .description("Flights with seat changes not yet written to the database")
+                .register(registry);
+    }
+
+    private FlightInventory inventoryFor(String flightId) {
+        FlightInventory inventory = inventories.get(flightId);
+        if (inventory != null) {
+            return inventory;
+        }
+        return inventories.computeIfAbsent(flightId, id -> flightRepository.findById(id)
+                .map(FlightInventory::new)
+                .orElseThrow(() -> new FlightNotFoundException("Flight with ID " + id + " does not exist")));
+    }
+
+    private static boolean isZero(int[] deltas) {
+        for (int delta : deltas) {
+            if (delta != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class FlightInventory {
+        private final AtomicIntegerArray available = new AtomicIntegerArray(SeatClass.values().length);
+        private final AtomicIntegerArray pending = new AtomicIntegerArray(SeatClass.values().length);
+
+        private FlightInventory(Flight flight) {
+            available.set(SeatClass.ECONOMY.ordinal(), flight.getEconomyAvailable());
+            available.set(SeatClass.PREMIUM_ECONOMY.ordinal(), flight.getPremiumEconomyAvailable());
+            available.set(SeatClass.BUSINESS.ordinal(), flight.getBusinessAvailable());
+            available.set(SeatClass.FIRST_CLASS.ordinal(), flight.getFirstClassAvailable());
+        }
+
+        private boolean tryReserve(SeatClass seatClass, int seats) {
+            int slot = seatClass.ordinal();
+            while (true) {
+                int current = available.get(slot);
+                if (current < seats) {
+                    return false;
+                }
+                if (available.compareAndSet(slot, current, current - seats)) {
+                    pending.addAndGet(slot, -seats);
+                    return true;
+                }
+            }
+        }
+
+        private void forceReserve(SeatClass seatClass, int seats) {
+            available.addAndGet(seatClass.ordinal(), -seats);
+            pending.addAndGet(seatClass.ordinal(), -seats);
+        }
+
+        private void release(SeatClass seatClass, int seats) {
+            available.addAndGet(seatClass.ordinal(), seats);
+            pending.addAndGet(seatClass.ordinal(), seats);
+        }
+
+        private int[] drainPending() {
+            int[] deltas = new int[pending.length()];
+            for (int i = 0; i < deltas.length; i++) {
+                deltas[i] = pending.getAndSet(i, 0);
+            }
+            return deltas;
+        }
+
+        private void restorePending(int[] deltas) {
+            for (int i = 0; i < deltas.length; i++) {
+                pending.addAndGet(i, deltas[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.acmeair.service;
+
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class SeatMap {
+    private static final SeatClass[] CABIN_ORDER = {
+            SeatClass.FIRST_CLASS, SeatClass.BUSINESS, SeatClass.PREMIUM_ECONOMY, SeatClass.ECONOMY
+    };
+
+    private final Cabin[] cabins = new Cabin[SeatClass.values().length];
+
+    private SeatMap(Flight flight) {
+        int nextRow = 1;
+        for (SeatClass seatClass : CABIN_ORDER) {
+            Cabin cabin = new Cabin(nextRow, seatsPerRow(seatClass), totalSeats(flight, seatClass));
+            cabins[seatClass.ordinal()] = cabin;
+            nextRow += cabin.rows;
+        }
+    }
+
+    static SeatMap forFlight(Flight flight) {
+        return new SeatMap(flight);
+    }
+
+    static int seatsPerRow(SeatClass seatClass) {
+        return switch (seatClass) {
+            case ECONOMY, PREMIUM_ECONOMY -> 6;
+            case BUSINESS -> 4;
+            case FIRST_CLASS -> 2;
+        };
+    }
+
+    // A group is seated a full row at a time, then the remainder together in one row; whatever cannot be
+    // placed in adjacent blocks falls back to single seats. All or nothing: a partial group is released again.
+    List<String> allocate(SeatClass seatClass, int count) {
+        Cabin cabin = cabins[seatClass.ordinal()];
+        List<String> seats = new ArrayList<>(count);
+        while (seats.size() < count) {
+            String[] adjacent = cabin.allocateInRow(Math.min(count - seats.size(), cabin.seatsPerRow));
+            if (adjacent == null) {
+                break;
+            }
+            seats.addAll(List.of(adjacent));
+        }
+
+        while (seats.size() < count) {
+            String[] seat = cabin.allocateInRow(1);
+            if (seat == null) {
+                seats.forEach(this::release);
+                return List.of();
+            }
+            seats.add(seat[0]);
+        }
+        return seats;
+    }
+
+    boolean occupy(String seatNumber) {
+        Cabin cabin = cabinFor(seatNumber);
+        return cabin != null && cabin.occupy(seatNumber);
+    }
+
+    void release(String seatNumber) {
+        Cabin cabin = cabinFor(seatNumber);
+        if (cabin != null) {
+            cabin.release(seatNumber);
+        }
+    }
+
+    int freeSeats(SeatClass seatClass) {
+        return cabins[seatClass.ordinal()].freeSeats();
+    }
+
+    String seatNumber(SeatClass seatClass, int index) {
+        Cabin cabin = cabins[seatClass.ordinal()];
+        return (cabin.firstRow + index / cabin.seatsPerRow) + String.valueOf((char) ('A' + index % cabin.seatsPerRow));
+    }
+
+    private Cabin cabinFor(String seatNumber) {
+        int row = parseRow(seatNumber);
+        for (Cabin cabin : cabins) {
+            if (row >= cabin.firstRow && row < cabin.firstRow + cabin.rows) {
+                return cabin;
+            }
+        }
+        return null;
+    }
+
+    private static int parseRow(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(seatNumber.substring(0, seatNumber.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int totalSeats(Flight flight, SeatClass seatClass) {
+        return switch (seatClass) {
+            case ECONOMY -> flight.getEconomyTotal();
+            case PREMIUM_ECONOMY -> flight.getPremiumEconomyTotal();
+            case BUSINESS -> flight.getBusinessTotal();
+            case FIRST_CLASS -> flight.getFirstClassTotal();
+        };
+    }
+
+    // Rows never straddle a 64-bit word, so a whole row (and any block of adjacent seats in it)
+    // can be claimed with a single CAS. Bits that do not map to a real seat start out occupied.
+    private static final class Cabin {
+        private final int firstRow;
+        private final int seatsPerRow;
+        private final int seatCount;
+        private final int rows;
+        private final int rowsPerWord;
+        private final AtomicLongArray words;
+        private final AtomicInteger firstNonFullWord = new AtomicInteger();
+
+        private Cabin(int firstRow, int seatsPerRow, int seatCount) {
+            this.firstRow = firstRow;
+            this.seatsPerRow = seatsPerRow;
+            this.seatCount = Math.max(seatCount, 0);
+            this.rows = Math.ceilDiv(this.seatCount, seatsPerRow);
+            this.rowsPerWord = Long.SIZE / seatsPerRow;
+            this.words = new AtomicLongArray(Math.ceilDiv(rows, rowsPerWord));
+
+            for (int word = 0; word < words.length(); word++) {
+                long usable = 0L;
+                for (int rowInWord = 0; rowInWord < rowsPerWord; rowInWord++) {
+                    int row = word * rowsPerWord + rowInWord;
+                    if (row >= rows) {
+                        break;
+                    }
+                    int seatsInRow = Math.min(seatsPerRow, this.seatCount - row * seatsPerRow);
+                    usable |= ((1L << seatsInRow) - 1) << (rowInWord * seatsPerRow);
+                }
+                words.set(word, ~usable);
+            }
+        }
+
+        private String[] allocateInRow(int count) {
+            int hint = firstNonFullWord.get();
+            String[] seats = allocateInRow(count, hint);
+            // The hint can briefly run ahead of a concurrent release, so fall back to a full scan
+            return (seats == null && hint > 0) ? allocateInRow(count, 0) : seats;
+        }
+
+        private String[] allocateInRow(int count, int startWord) {
+            long block = (1L << count) - 1;
+            for (int word = startWord; word < words.length(); word++) {
+                while (true) {
+                    long current = words.get(word);
+                    if (current == -1L) {
+                        firstNonFullWord.compareAndSet(word, word + 1);
+                        break;
+                    }
+                    long claim = (count == 1) ? Long.lowestOneBit(~current) : findFreeBlock(current, block, count);
+                    if (claim == 0L) {
+                        break;
+                    }
+                    if (words.compareAndSet(word, current, current | claim)) {
+                        return toSeatNumbers(word, claim, count);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private long findFreeBlock(long current, long block, int count) {
+            for (int rowInWord = 0; rowInWord < rowsPerWord; rowInWord++) {
+                for (int seat = 0; seat + count <= seatsPerRow; seat++) {
+                    long candidate = block << (rowInWord * seatsPerRow + seat);
+                    if ((current & candidate) == 0L) {
+                        return candidate;
+                    }
+                }
+            }
+            return 0L;
+        }
+
+        private boolean occupy(String seatNumber) {
+            int bit = bitFor(seatNumber);
+            if (bit < 0) {
+                return false;
+            }
+            long mask = 1L << (bit % Long.SIZE);
+            int word = bit / Long.SIZE;
+            while (true) {
+                long current = words.get(word);
+                if ((current & mask) != 0L) {
+                    return false;
+                }
+                if (words.compareAndSet(word, current, current | mask)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release(String seatNumber) {
+            int bit = bitFor(seatNumber);
+            if (bit < 0) {
+                return;
+            }
+            long mask = 1L << (bit % Long.SIZE);
+            int word = bit / Long.SIZE;
+            while (true) {
+                long current = words.get(word);
+                if ((current & mask) == 0L || words.compareAndSet(word, current, current & ~mask)) {
+                    break;
+                }
+            }
+            firstNonFullWord.accumulateAndGet(word, Math::min);
+        }
+
+        private int freeSeats() {
+            int free = 0;
+            for (int word = 0; word < words.length(); word++) {
+                free += Long.bitCount(~words.get(word));
+            }
+            return free;
+        }
+
+        // Returns the global bit index (word * 64 + bit) for a seat, or -1 if it is not a real seat
+        private int bitFor(String seatNumber) {
+            int row = parseRow(seatNumber) - firstRow;
+            int seat = Character.toUpperCase(seatNumber.charAt(seatNumber.length() - 1)) - 'A';
+            if (row < 0 || row >= rows || seat < 0 || seat >= seatsPerRow || row * seatsPerRow + seat >= seatCount) {
+                return -1;
+            }
+            int word = row / rowsPerWord;
+            int bit = (row % rowsPerWord) * seatsPerRow + seat;
+            return word * Long.SIZE + bit;
+        }
+
+        private String[] toSeatNumbers(int word, long claim, int count) {
+            String[] seats = new String[count];
+            int i = 0;
+            long remaining = claim;
+            while (remaining != 0L) {
+                int bit = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                int row = word * rowsPerWord + bit / seatsPerRow;
+                seats[i++] = (firstRow + row) + String.valueOf((char) ('A' + bit % seatsPerRow));
+            }
+            return seats;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.acmeair.service;
+
+import com.acmeair.model.BookingStatus;
+import com.acmeair.model.Flight;
+import com.acmeair.model.FlightType;
+import com.acmeair.model.SeatClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+// Bulk-loads synthetic airports, flights, passengers and bookings with multi-row INSERT statements, which both H2
+// and PostgreSQL accept. Everything is derived from the row number, so the same plan always produces the same data.
+public class SyntheticDataGenerator {
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final List<String> KNOWN_AIRPORTS = List.of(
+            "SYD", "MEL", "BNE", "PER", "ADL", "CBR", "HBA", "OOL", "CNS", "DRW",
+            "AKL", "WLG", "CHC", "ZQN", "NTL", "TSV", "MCY", "LST", "ASP", "BME");
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final int PREMIUM_ECONOMY_SEATS = 24;
+    private static final int BUSINESS_SEATS = 16;
+    private static final int FIRST_CLASS_SEATS = 4;
+
+    private static final String FLIGHT_COLUMNS = """
+            INSERT INTO flights (id, flight_number, origin, destination, departure_time, arrival_time, aircraft,
+                                 economy_price, premium_economy_price, business_price, first_class_price,
+                                 economy_available, premium_economy_available, business_available, first_class_available,
+                                 economy_total, premium_economy_total, business_total, first_class_total,
+                                 is_direct, stops, version)
+            VALUES\s""";
+    private static final String FLIGHT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String PASSENGER_COLUMNS = """
+            INSERT INTO passengers (id, first_name, last_name, email, phone_number, passport_number, date_of_birth)
+            VALUES\s""";
+    private static final String PASSENGER_ROW = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final String BOOKING_COLUMNS = """
+            INSERT INTO bookings (id, flight_id, return_flight_id, passenger_id, booking_time, status, seat_class,
+                                  flight_type, seat_number, return_seat_number, total_price)
+            VALUES\s""";
+    private static final String BOOKING_ROW = "(?, ?, NULL, ?, ?, ?, ?, ?, ?, NULL, ?)";
+    private static final String SEAT_COLUMNS = """
+            INSERT INTO booking_seats (flight_id, seat_number)
+            VALUES\s""";
+    private static final String SEAT_ROW = "(?, ?)";
+
+    public record Plan(int airports, int days, int flightsPerRoutePerDay, int economySeats, int bookings,
+                       LocalDate firstDay) {
+        public Plan {
+            if (airports < 2 || airports > KNOWN_AIRPORTS.size() + 26 * 26) {
+                throw new IllegalArgumentException("Airports must be between 2 and " + (KNOWN_AIRPORTS.size() + 26 * 26));
+            }
+            if (days < 1 || flightsPerRoutePerDay < 1 || economySeats < 1 || bookings < 0) {
+                throw new IllegalArgumentException("Days, flights per route per day and economy seats must be positive");
+            }
+        }
+
+        public int routes() {
+            return airports * (airports - 1);
+        }
+
+        public int flights() {
+            return routes() * days * flightsPerRoutePerDay;
+        }
+    }
+
+    // Flight n flies route (n / flightsPerRoutePerDay) % routes on day n / (routes * flightsPerRoutePerDay)
+    public record Dataset(Plan plan, List<String> airports) {
+        public int flights() {
+            return plan.flights();
+        }
+
+        public int routes() {
+            return plan.routes();
+        }
+
+        public String flightId(int flight) {
+            return String.format("GF%08d", flight);
+        }
+
+        public String origin(int route) {
+            return airports.get(route / (airports.size() - 1));
+        }
+
+        public String destination(int route) {
+            int from = route / (airports.size() - 1);
+            int to = route % (airports.size() - 1);
+            return airports.get(to >= from ? to + 1 : to);
+        }
+
+        public LocalDate firstDay() {
+            return plan.firstDay();
+        }
+
+        public int days() {
+            return plan.days();
+        }
+
+        int route(int flight) {
+            return (flight / plan.flightsPerRoutePerDay()) % plan.routes();
+        }
+
+        int day(int flight) {
+            return flight / (plan.routes() * plan.flightsPerRoutePerDay());
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Dataset generate(Plan plan) {
+        if ((long) plan.bookings() > (long) plan.flights() * plan.economySeats()) {
+            throw new IllegalArgumentException("Cannot place " + plan.bookings() + " bookings on " + plan.flights()
+                    + " flights with " + plan.economySeats() + " economy seats each");
+        }
+        Dataset dataset = new Dataset(plan, airportCodes(plan.airports()));
+
+        long start = System.nanoTime();
+        insert(FLIGHT_COLUMNS, FLIGHT_ROW, plan.flights(), flight -> flightRow(dataset, flight));
+        insert(PASSENGER_COLUMNS, PASSENGER_ROW, plan.bookings(), this::passengerRow);
+        SeatMap seatMap = SeatMap.forFlight(seatLayout(plan));
+        insert(BOOKING_COLUMNS, BOOKING_ROW, plan.bookings(), booking -> bookingRow(dataset, seatMap, booking));
+        insert(SEAT_COLUMNS, SEAT_ROW, plan.bookings(), booking -> seatRow(dataset, seatMap, booking));
+
+        log.info("Generated {} flights and {} bookings over {} airports in {} ms", plan.flights(), plan.bookings(),
+                plan.airports(), (System.nanoTime() - start) / 1_000_000);
+        return dataset;
+    }
+
+    static List<String> airportCodes(int count) {
+        List<String> codes = new ArrayList<>(KNOWN_AIRPORTS.subList(0, Math.min(count, KNOWN_AIRPORTS.size())));
+        for (int i = 0; codes.size() < count; i++) {
+            codes.add("Q" + (char) ('A' + i / 26) + (char) ('A' + i % 26));
+        }
+        return Collections.unmodifiableList(codes);
+    }
+
+    private void insert(String columns, String row, int count, IntFunction<Object[]> values) {
+        for (int start = 0; start < count; start += ROWS_PER_STATEMENT) {
+            int rows = Math.min(ROWS_PER_STATEMENT, count - start);
+            String sql = columns + String.join(", ", Collections.nCopies(rows, row));
+            List<Object> args = new ArrayList<>();
+            for (int i = start; i < start + rows; i++) {
+                Collections.addAll(args, values.apply(i));
+            }
+            jdbcTemplate.update(sql, args.toArray());
+        }
+    }
+
+    // Bookings are dealt round-robin over the flights, so flight n holds every booking b with b % flights == n
+    private Object[] flightRow(Dataset dataset, int flight) {
+        Plan plan = dataset.plan();
+        int route = dataset.route(flight);
+        int slot = flight % plan.flightsPerRoutePerDay();
+        boolean direct = flight % 4 != 0;
+        int minuteOfDay = (6 * 60 + slot * (18 * 60) / plan.flightsPerRoutePerDay() + flight % 7) % (24 * 60);
+        LocalDateTime departure = plan.firstDay().plusDays(dataset.day(flight)).atStartOfDay().plusMinutes(minuteOfDay);
+        BigDecimal economy = economyPrice(flight);
+        int booked = plan.bookings() / plan.flights() + (flight < plan.bookings() % plan.flights() ? 1 : 0);
+
+        return new Object[]{
+                dataset.flightId(flight), "GF" + (flight % 10_000), dataset.origin(route), dataset.destination(route),
+                Timestamp.valueOf(departure), Timestamp.valueOf(departure.plusMinutes(direct ? 95 : 240)), "Airbus A320",
+                economy, economy.add(BigDecimal.valueOf(100)),
+                economy.multiply(BigDecimal.valueOf(3)), economy.multiply(BigDecimal.valueOf(5)),
+                plan.economySeats() - booked, PREMIUM_ECONOMY_SEATS, BUSINESS_SEATS, FIRST_CLASS_SEATS,
+                plan.economySeats(), PREMIUM_ECONOMY_SEATS, BUSINESS_SEATS, FIRST_CLASS_SEATS,
+                direct, direct ? 0 : 1
+        };
+    }
+
+    private Object[] passengerRow(int passenger) {
+        return new Object[]{
+                passengerId(passenger), "Passenger", "No" + passenger, "passenger" + passenger + "@example.com",
+                "+614" + String.format("%08d", passenger % 100_000_000), String.format("PA%08d", passenger),
+                Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(passenger % 20_000))
+        };
+    }
+
+    private Object[] bookingRow(Dataset dataset, SeatMap seatMap, int booking) {
+        int flight = booking % dataset.flights();
+        return new Object[]{
+                String.format("GB%08d", booking), dataset.flightId(flight), passengerId(booking),
+                Timestamp.valueOf(dataset.firstDay().atStartOfDay().minusDays(1 + booking % 60)),
+                BookingStatus.CONFIRMED.name(), SeatClass.ECONOMY.name(), FlightType.ONE_WAY.name(),
+                seatMap.seatNumber(SeatClass.ECONOMY, booking / dataset.flights()), economyPrice(flight)
+        };
+    }
+
+    private Object[] seatRow(Dataset dataset, SeatMap seatMap, int booking) {
+        return new Object[]{
+                dataset.flightId(booking % dataset.flights()),
+                seatMap.seatNumber(SeatClass.ECONOMY, booking / dataset.flights())
+        };
+    }
+
+    private static Flight seatLayout(Plan plan) {
+        Flight flight = new Flight();
+        flight.setEconomyTotal(plan.economySeats());
+        flight.setPremiumEconomyTotal(PREMIUM_ECONOMY_SEATS);
+        flight.setBusinessTotal(BUSINESS_SEATS);
+        flight.setFirstClassTotal(FIRST_CLASS_SEATS);
+        return flight;
+    }
+
+    private static BigDecimal economyPrice(int flight) {
+        return BigDecimal.valueOf(9_999 + (flight * 31L % 900) * 100, 2);
+    }
+
+    private static String passengerId(int passenger) {
+        return String.format("GP%08d", passenger);
+    }
+}
@@ -0,0 +1,120 @@
+package com.acmeair.config;
+
+import com.acmeair.dto.FlightResponseDto;
+import com.acmeair.dto.FlightSearchResponse;
+import com.acmeair.dto.FlightView;
+import com.acmeair.model.FlightType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FlightJsonModuleTest {
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper cachingMapper;
+    private FlightJsonModule module;
+
+    @BeforeEach
+    void setUp() {
+        plainMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        module = new FlightJsonModule(100);
+        cachingMapper = plainMapper.copy().registerModule(module);
+    }
+
+    @Test
+    void writeValue_Success_MatchesBeanSerializerOutput() throws Exception {
+        // Arrange
+        FlightResponseDto flight = new FlightResponseDto(flightView("FL001", new BigDecimal("199.99"), 120, "Boeing 737"));
+
+        // Act
+        String first = cachingMapper.writeValueAsString(flight);
+        String second = cachingMapper.writeValueAsString(flight);
+
+        // Assert
+        assertThat(first).isEqualTo(plainMapper.writeValueAsString(flight));
+        assertThat(second).isEqualTo(first);
+        assertThat(module.getCacheStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writeValue_Success_SplicesCurrentAvailability() throws Exception {
+        // Arrange
+        cachingMapper.writeValueAsString(new FlightResponseDto(flightView("FL001", new BigDecimal("199.99"), 120, "Boeing 737")));
+        FlightResponseDto changed = new FlightResponseDto(flightView("FL001", new BigDecimal("199.99"), 7, "Boeing 737"));
+
+        // Act
+        String json = cachingMapper.writeValueAsString(changed);
+
+        // Assert
+        assertThat(json).isEqualTo(plainMapper.writeValueAsString(changed));
+        assertThat(json).contains("\"availableSeats\":7,");
+    }
+
+    @Test
+    void writeValue_Success_RerendersWhenStaticAttributesChange() throws Exception {
+        // Arrange
+        cachingMapper.writeValueAsString(new FlightResponseDto(flightView("FL001", new BigDecimal("199.99"), 120, "Boeing 737")));
+        FlightResponseDto repriced = new FlightResponseDto(flightView("FL001", new BigDecimal("149.50"), 120, null));
+
+        // Act
+        String json = cachingMapper.writeValueAsString(repriced);
+
+        // Assert
+        assertThat(json).isEqualTo(plainMapper.writeValueAsString(repriced));
+        assertThat(json).contains("149.50").doesNotContain("aircraft");
+    }
+
+    @Test
+    void writeValue_Success_WritesSearchResponseWithSeparators() throws Exception {
+        // Arrange
+        FlightSearchResponse response = new FlightSearchResponse(FlightType.RETURN,
+                List.of(flightView("FL001", new BigDecimal("199.99"), 120, "Boeing 737"),
+                        flightView("FL002", new BigDecimal("89.00"), 0, "Airbus A320")),
+                List.of(flightView("FL003", new BigDecimal("210.00"), 55, "Boeing 737")),
+                3, 0, 20, 1, true, true);
+        cachingMapper.writeValueAsString(response);
+
+        // Act
+        byte[] json = cachingMapper.writeValueAsBytes(response);
+
+        // Assert
+        assertThat(new String(json)).isEqualTo(plainMapper.writeValueAsString(response));
+        assertThat(plainMapper.readTree(json)).isEqualTo(plainMapper.readTree(plainMapper.writeValueAsBytes(response)));
+    }
+
+    @Test
+    void writeValue_Success_FallsBackWhenPrettyPrintingOrSeatsMissing() throws Exception {
+        // Arrange
+        FlightResponseDto flight = new FlightResponseDto(flightView("FL001", new BigDecimal("199.99"), 120, "Boeing 737"));
+        FlightResponseDto withoutSeats = new FlightResponseDto(flightView("FL002", new BigDecimal("89.00"), 3, "Airbus A320"));
+        withoutSeats.setSeats(null);
+
+        // Act
+        String pretty = cachingMapper.writerWithDefaultPrettyPrinter().writeValueAsString(flight);
+        String partial = cachingMapper.writeValueAsString(withoutSeats);
+
+        // Assert
+        assertThat(pretty).isEqualTo(plainMapper.writerWithDefaultPrettyPrinter().writeValueAsString(flight));
+        assertThat(partial).isEqualTo(plainMapper.writeValueAsString(withoutSeats));
+        assertThat(module.getCacheStats().requestCount()).isZero();
+    }
+
+    private FlightView flightView(String id, BigDecimal economyPrice, int economyAvailable, String aircraft) {
+        return new FlightView(id, "AA" + id.substring(2), "JFK", "LAX",
+                LocalDateTime.of(2026, 12, 1, 8, 30), LocalDateTime.of(2026, 12, 1, 11, 45), aircraft,
+                economyPrice, new BigDecimal("349.00"), new BigDecimal("899.00"), new BigDecimal("1999.00"),
+                economyAvailable, 24, 12, 4, 120, 24, 16, 8, true, 0, 1L);
+    }
+}
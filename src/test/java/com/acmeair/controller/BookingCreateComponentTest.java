@@ -1,5 +1,8 @@
 package com.acmeair.controller;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -12,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.Map;
 
@@ -26,6 +30,12 @@ class BookingCreateComponentTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private static final String DEMO_API_KEY = "acme-air-demo-2025-secure-token-12345";
     private static final String API_KEY_HEADER = "X-API-Key";
 
@@ -94,4 +104,120 @@ class BookingCreateComponentTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().get("error")).isEqualTo("Flight not found");
     }
-}
\ No newline at end of file
+
+    @Test
+    void createBooking_Success_ReturnBookingLoadsAndReservesBothLegsTogether() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        postReturnBooking("RT000001");
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        ResponseEntity<Map> response = postReturnBooking("RT000002");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().get("returnFlightId")).isEqualTo("FL014");
+        // One read for both legs, one seat update and one seat claim per leg, then the passenger and booking inserts
+        assertThat(statistics.getPrepareStatementCount() - statementsBefore).isLessThanOrEqualTo(7);
+    }
+
+    @Test
+    void createBooking_Success_RetriesWhenAnotherNodeTookTheSeat() {
+        ResponseEntity<Map> first = postFirstClassBooking("FL009", "NODE0001");
+        assertThat(first.getBody().get("seatNumber")).isEqualTo("1A");
+        // Another node books the seat this node's seat map would hand out next
+        jdbcTemplate.update("""
+            INSERT INTO passengers (id, first_name, last_name, email, phone_number, passport_number, date_of_birth)
+            VALUES ('PXNODE0002', 'Other', 'Node', 'other.node@email.com', '+61123456789', 'NODE0002', DATE '1990-01-01')
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO bookings (id, flight_id, passenger_id, booking_time, status, seat_class, flight_type,
+                                  seat_number, total_price)
+            VALUES ('BKNODE0002', 'FL009', 'PXNODE0002', CURRENT_TIMESTAMP, 'CONFIRMED', 'FIRST_CLASS', 'ONE_WAY',
+                    '1B', 1069.99)
+            """);
+        jdbcTemplate.update("INSERT INTO booking_seats (flight_id, seat_number) VALUES ('FL009', '1B')");
+
+        ResponseEntity<Map> response = postFirstClassBooking("FL009", "NODE0003");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().get("seatNumber")).isEqualTo("2A");
+        // The losing attempt's seat count update was rolled back with it
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT first_class_available FROM flights WHERE id = 'FL009'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void createBooking_Success_RetriesWhenAnotherBookingsReturnLegTookTheSeat() {
+        ResponseEntity<Map> first = postFirstClassBooking("FL015", "LEGS0001");
+        assertThat(first.getBody().get("seatNumber")).isEqualTo("1A");
+        // Another node books a round trip whose return leg holds the seat this node would hand out next as an outbound
+        jdbcTemplate.update("""
+            INSERT INTO passengers (id, first_name, last_name, email, phone_number, passport_number, date_of_birth)
+            VALUES ('PXLEGS0002', 'Other', 'Leg', 'other.leg@email.com', '+61123456789', 'LEGS0002', DATE '1990-01-01')
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO bookings (id, flight_id, return_flight_id, passenger_id, booking_time, status, seat_class,
+                                  flight_type, seat_number, return_seat_number, total_price)
+            VALUES ('BKLEGS0002', 'FL017', 'FL015', 'PXLEGS0002', CURRENT_TIMESTAMP, 'CONFIRMED', 'FIRST_CLASS',
+                    'RETURN', '1A', '1B', 1899.98)
+            """);
+        jdbcTemplate.update("INSERT INTO booking_seats (flight_id, seat_number) VALUES ('FL017', '1A'), ('FL015', '1B')");
+
+        ResponseEntity<Map> response = postFirstClassBooking("FL015", "LEGS0003");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().get("seatNumber")).isEqualTo("2A");
+        assertThat(jdbcTemplate.queryForList("SELECT seat_number FROM booking_seats WHERE flight_id = 'FL015'",
+                String.class)).containsExactlyInAnyOrder("1A", "1B", "2A");
+    }
+
+    private ResponseEntity<Map> postFirstClassBooking(String flightId, String passportNumber) {
+        String requestBody = """
+            {
+              "flightType": "ONE_WAY",
+              "flightId": "%s",
+              "seatClass": "FIRST_CLASS",
+              "passenger": {
+                "firstName": "Front",
+                "lastName": "Row",
+                "email": "front.row@email.com",
+                "phoneNumber": "+61123456789",
+                "passportNumber": "%s",
+                "dateOfBirth": "1990-01-01"
+              }
+            }
+            """.formatted(flightId, passportNumber);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return restTemplate.postForEntity("http://localhost:" + port + "/api/v1/bookings",
+                new HttpEntity<>(requestBody, headers), Map.class);
+    }
+
+    private ResponseEntity<Map> postReturnBooking(String passportNumber) {
+        String requestBody = """
+            {
+              "flightType": "RETURN",
+              "flightId": "FL011",
+              "returnFlightId": "FL014",
+              "seatClass": "BUSINESS",
+              "passenger": {
+                "firstName": "Round",
+                "lastName": "Trip",
+                "email": "round.trip@email.com",
+                "phoneNumber": "+61123456789",
+                "passportNumber": "%s",
+                "dateOfBirth": "1990-01-01"
+              }
+            }
+            """.formatted(passportNumber);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return restTemplate.postForEntity("http://localhost:" + port + "/api/v1/bookings",
+                new HttpEntity<>(requestBody, headers), Map.class);
+    }
+}
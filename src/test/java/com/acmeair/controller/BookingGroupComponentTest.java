@@ -0,0 +1,144 @@
+package com.acmeair.controller;
+
+import com.acmeair.dto.GroupBookingRequest;
+import com.acmeair.model.FlightType;
+import com.acmeair.model.Passenger;
+import com.acmeair.model.SeatClass;
+import com.acmeair.service.ApiTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingGroupComponentTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ApiTokenService apiTokenService;
+
+    private static final String VALID_API_KEY = "test-api-key";
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    @BeforeEach
+    void setUp() {
+        when(apiTokenService.isValidToken(VALID_API_KEY)).thenReturn(true);
+    }
+
+    @Test
+    void createGroupBooking_Success_BooksEveryPassengerInAdjacentSeats() throws Exception {
+        GroupBookingRequest request = new GroupBookingRequest(
+                FlightType.ONE_WAY, "FL002", null, SeatClass.BUSINESS, passengers("GRP", 3));
+
+        ResponseEntity<List> response = restTemplate.exchange(url("/api/v1/bookings/group"), HttpMethod.POST,
+                jsonEntity(request), List.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        List<Map<String, Object>> bookings = response.getBody();
+        assertThat(bookings).hasSize(3);
+        assertThat(bookings).extracting(booking -> booking.get("id")).doesNotHaveDuplicates();
+        assertThat(bookings).extracting(booking -> booking.get("status")).containsOnly("CONFIRMED");
+        assertThat(bookings).extracting(booking -> booking.get("isNew")).containsOnlyNulls();
+
+        List<String> seats = bookings.stream().map(booking -> (String) booking.get("seatNumber")).toList();
+        String row = seats.get(0).substring(0, seats.get(0).length() - 1);
+        assertThat(seats).allMatch(seat -> seat.startsWith(row));
+
+        ResponseEntity<Map> stored = restTemplate.exchange(url("/api/v1/bookings/" + bookings.get(2).get("id")),
+                HttpMethod.GET, new HttpEntity<>(headers()), Map.class);
+        assertThat(stored.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Map<?, ?>) stored.getBody().get("passenger")).get("passportNumber")).isEqualTo("GRP2");
+    }
+
+    @Test
+    void createGroupBooking_Failure_NotEnoughSeatsForWholeGroup() throws Exception {
+        GroupBookingRequest request = new GroupBookingRequest(
+                FlightType.ONE_WAY, "FL003", null, SeatClass.FIRST_CLASS, passengers("FULL", 4));
+
+        ResponseEntity<Map> response = restTemplate.exchange(url("/api/v1/bookings/group"), HttpMethod.POST,
+                jsonEntity(request), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().get("error")).isEqualTo("No seats available");
+
+        // Nothing was reserved, so a group that fits still books
+        GroupBookingRequest smaller = new GroupBookingRequest(
+                FlightType.ONE_WAY, "FL003", null, SeatClass.FIRST_CLASS, passengers("FITS", 3));
+        ResponseEntity<List> retry = restTemplate.exchange(url("/api/v1/bookings/group"), HttpMethod.POST,
+                jsonEntity(smaller), List.class);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).hasSize(3);
+    }
+
+    @Test
+    void createGroupBooking_Failure_DuplicatePassport() throws Exception {
+        List<Passenger> passengers = List.of(passengers("DUP", 1).get(0), passengers("DUP", 1).get(0));
+        GroupBookingRequest request = new GroupBookingRequest(
+                FlightType.ONE_WAY, "FL002", null, SeatClass.ECONOMY, passengers);
+
+        ResponseEntity<Map> response = restTemplate.exchange(url("/api/v1/bookings/group"), HttpMethod.POST,
+                jsonEntity(request), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void createGroupBooking_Failure_TooManyPassengers() throws Exception {
+        GroupBookingRequest request = new GroupBookingRequest(
+                FlightType.ONE_WAY, "FL002", null, SeatClass.ECONOMY, passengers("MANY", 10));
+
+        ResponseEntity<Map> response = restTemplate.exchange(url("/api/v1/bookings/group"), HttpMethod.POST,
+                jsonEntity(request), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private List<Passenger> passengers(String passportPrefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Passenger(null, "Group" + i, "Traveller", "group" + i + "@email.com",
+                        "+6140000000" + i, passportPrefix + i, LocalDate.of(1980 + i, 1, 1)))
+                .toList();
+    }
+
+    private HttpEntity<String> jsonEntity(Object body) throws Exception {
+        HttpHeaders headers = headers();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(objectMapper.writeValueAsString(body), headers);
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, VALID_API_KEY);
+        return headers;
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
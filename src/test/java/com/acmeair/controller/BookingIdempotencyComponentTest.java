@@ -0,0 +1,147 @@
+package com.acmeair.controller;
+
+import com.acmeair.dto.BookingRequest;
+import com.acmeair.model.FlightType;
+import com.acmeair.model.Passenger;
+import com.acmeair.model.SeatClass;
+import com.acmeair.service.ApiTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingIdempotencyComponentTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ApiTokenService apiTokenService;
+
+    private static final String VALID_API_KEY = "test-api-key";
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    @BeforeEach
+    void setUp() {
+        when(apiTokenService.isValidToken(VALID_API_KEY)).thenReturn(true);
+        when(apiTokenService.isValidToken("other-api-key")).thenReturn(true);
+    }
+
+    @Test
+    void createBooking_Success_RetryWithSameKeyReturnsOriginalBooking() throws Exception {
+        int availableBefore = availableSeats("FL005");
+        HttpEntity<String> entity = bookingEntity(VALID_API_KEY, "retry-1", "IDEM001");
+
+        ResponseEntity<Map> first = restTemplate.postForEntity(url("/api/v1/bookings"), entity, Map.class);
+        ResponseEntity<Map> retry = restTemplate.postForEntity(url("/api/v1/bookings"), entity, Map.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("false");
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getBody().get("id")).isEqualTo(first.getBody().get("id"));
+        assertThat(retry.getBody().get("seatNumber")).isEqualTo(first.getBody().get("seatNumber"));
+        assertThat(availableSeats("FL005")).isEqualTo(availableBefore - 1);
+    }
+
+    @Test
+    void createBooking_Success_ConcurrentRetriesCreateOneBooking() throws Exception {
+        int availableBefore = availableSeats("FL005");
+        HttpEntity<String> entity = bookingEntity(VALID_API_KEY, "storm-1", "IDEM002");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<ResponseEntity<Map>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> restTemplate.postForEntity(url("/api/v1/bookings"), entity, Map.class));
+        }
+
+        List<Object> bookingIds = new ArrayList<>();
+        try {
+            for (Future<ResponseEntity<Map>> future : executor.invokeAll(tasks)) {
+                ResponseEntity<Map> response = future.get();
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                bookingIds.add(response.getBody().get("id"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(bookingIds).hasSize(8).containsOnly(bookingIds.get(0));
+        assertThat(availableSeats("FL005")).isEqualTo(availableBefore - 1);
+    }
+
+    @Test
+    void createBooking_Success_KeysAreScopedToTheApiKey() throws Exception {
+        ResponseEntity<Map> first = restTemplate.postForEntity(url("/api/v1/bookings"),
+                bookingEntity(VALID_API_KEY, "shared-key", "IDEM003"), Map.class);
+        ResponseEntity<Map> other = restTemplate.postForEntity(url("/api/v1/bookings"),
+                bookingEntity("other-api-key", "shared-key", "IDEM003"), Map.class);
+
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(other.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("false");
+        assertThat(other.getBody().get("id")).isNotEqualTo(first.getBody().get("id"));
+    }
+
+    @Test
+    void createBooking_Failure_SameKeyWithDifferentBody() throws Exception {
+        restTemplate.postForEntity(url("/api/v1/bookings"), bookingEntity(VALID_API_KEY, "reused-1", "IDEM004"), Map.class);
+
+        ResponseEntity<Map> response = restTemplate.postForEntity(url("/api/v1/bookings"),
+                bookingEntity(VALID_API_KEY, "reused-1", "IDEM005"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(response.getBody().get("error")).isEqualTo("Idempotency key reused");
+    }
+
+    private HttpEntity<String> bookingEntity(String apiKey, String idempotencyKey, String passport) throws Exception {
+        Passenger passenger = new Passenger(null, "Retry", "Storm", "retry.storm@email.com",
+                "+61400000000", passport, LocalDate.of(1990, 1, 1));
+        BookingRequest request = new BookingRequest(FlightType.ONE_WAY, "FL005", null, SeatClass.ECONOMY, passenger);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, apiKey);
+        headers.set("Idempotency-Key", idempotencyKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(objectMapper.writeValueAsString(request), headers);
+    }
+
+    private int availableSeats(String flightId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, VALID_API_KEY);
+        ResponseEntity<Map> response = restTemplate.exchange(url("/api/v1/flights/" + flightId), HttpMethod.GET,
+                new HttpEntity<>(headers), Map.class);
+        return ((Number) response.getBody().get("totalAvailableSeats")).intValue();
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
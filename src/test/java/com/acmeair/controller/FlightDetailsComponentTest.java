@@ -9,6 +9,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Map;
@@ -45,6 +46,62 @@ class FlightDetailsComponentTest {
         assertThat(response.getBody().get("destination")).isEqualTo("MEL");
     }
 
+    @Test
+    void getFlightDetails_Success_RepeatPollWithEtagIsNotModified() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+        String url = "http://localhost:" + port + "/api/v1/flights/FL006";
+
+        ResponseEntity<Map> first = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        String etag = first.getHeaders().getETag();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> poll = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(etag).isNotBlank();
+        assertThat(first.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        assertThat(poll.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(poll.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(poll.getBody()).isNull();
+    }
+
+    @Test
+    void getFlightDetails_Success_BookingChangesEtagAndAvailability() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+        String url = "http://localhost:" + port + "/api/v1/flights/FL006";
+        ResponseEntity<Map> before = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+        HttpHeaders bookingHeaders = new HttpHeaders();
+        bookingHeaders.set(API_KEY_HEADER, DEMO_API_KEY);
+        bookingHeaders.setContentType(MediaType.APPLICATION_JSON);
+        String booking = """
+            {
+              "flightType": "ONE_WAY",
+              "flightId": "FL006",
+              "seatClass": "ECONOMY",
+              "passenger": {
+                "firstName": "Etag",
+                "lastName": "Poller",
+                "email": "etag.poller@email.com",
+                "phoneNumber": "+61123456789",
+                "passportNumber": "ETAG001",
+                "dateOfBirth": "1990-01-01"
+              }
+            }
+            """;
+        restTemplate.postForEntity("http://localhost:" + port + "/api/v1/bookings",
+                new HttpEntity<>(booking, bookingHeaders), Map.class);
+
+        headers.setIfNoneMatch(before.getHeaders().getETag());
+        ResponseEntity<Map> after = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+        assertThat(after.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+        assertThat(after.getBody().get("totalAvailableSeats"))
+                .isEqualTo((Integer) before.getBody().get("totalAvailableSeats") - 1);
+    }
+
     @Test
     void getFlightDetails_Failure_FlightNotFound() {
         HttpHeaders headers = new HttpHeaders();
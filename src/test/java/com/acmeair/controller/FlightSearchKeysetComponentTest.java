@@ -0,0 +1,129 @@
+package com.acmeair.controller;
+
+import com.acmeair.model.Flight;
+import com.acmeair.repository.FlightRepository;
+import com.acmeair.service.ApiTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FlightSearchKeysetComponentTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @MockBean
+    private ApiTokenService apiTokenService;
+
+    private static final String VALID_API_KEY = "test-api-key";
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private final LocalDate travelDate = LocalDate.now(ZoneOffset.UTC).plusDays(10);
+    private final List<String> flightIds = List.of("KS001", "KS002", "KS003", "KS004", "KS005");
+
+    @BeforeEach
+    void setUp() {
+        String[] prices = {"310.00", "250.00", "250.00", "410.00", "199.00"};
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < flightIds.size(); i++) {
+            flights.add(new Flight(
+                    flightIds.get(i), "KS10" + i, "SYD", "PER",
+                    travelDate.atTime(6 + i, 0), travelDate.atTime(10 + i, 0),
+                    "Airbus A330",
+                    new BigDecimal(prices[i]), new BigDecimal("499.00"),
+                    new BigDecimal("899.00"), new BigDecimal("1499.00"),
+                    200, 30, 20, 8,
+                    200, 30, 20, 8,
+                    true, 0
+            ));
+        }
+        flightRepository.saveAll(flights);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRepository.deleteAllById(flightIds);
+    }
+
+    private ResponseEntity<Map> search(String query) {
+        when(apiTokenService.isValidToken(VALID_API_KEY)).thenReturn(true);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, VALID_API_KEY);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        String url = "http://localhost:" + port + "/api/v1/flights/search" +
+                "?flightType=ONE_WAY&departureAirport=SYD&arrivalAirport=PER&departureDate=" + travelDate + query;
+
+        return restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchFlights_Success_ScrollsAllPagesWithCursor() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResponseEntity<Map> response = search("&pagination=keyset&size=2&sortBy=price"
+                    + (cursor != null ? "&cursor=" + cursor : ""));
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().get("totalResults")).isNull();
+            assertThat(response.getBody().get("totalPages")).isNull();
+            List<Map<String, Object>> flights = (List<Map<String, Object>>) response.getBody().get("outboundFlights");
+            flights.forEach(flight -> seen.add((String) flight.get("id")));
+            cursor = (String) response.getBody().get("nextCursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly("KS005", "KS002", "KS003", "KS001", "KS004");
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void searchFlights_Failure_RejectsTamperedCursor() {
+        ResponseEntity<Map> response = search("&pagination=keyset&cursor=not-a-cursor");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().get("message")).isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    void searchFlights_Failure_RejectsCursorForDifferentSort() {
+        ResponseEntity<Map> firstPage = search("&pagination=keyset&size=2&sortBy=price");
+        String cursor = (String) firstPage.getBody().get("nextCursor");
+
+        ResponseEntity<Map> response = search("&pagination=keyset&size=2&sortBy=departureTime&cursor=" + cursor);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().get("message")).isEqualTo("Cursor does not match the requested sort order");
+    }
+}
@@ -0,0 +1,131 @@
+package com.acmeair.controller;
+
+import com.acmeair.model.Flight;
+import com.acmeair.repository.FlightRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FlightSearchStreamComponentTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String DEMO_API_KEY = "acme-air-demo-2025-secure-token-12345";
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private final LocalDate outboundDate = LocalDate.now(ZoneOffset.UTC).plusDays(20);
+    private final LocalDate returnDate = outboundDate.plusDays(3);
+    private final List<String> flightIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            flights.add(flight("ST%03d".formatted(i), "CBR", "HBA", outboundDate, i));
+        }
+        flights.add(flight("ST900", "HBA", "CBR", returnDate, 0));
+        flights.add(flight("ST901", "HBA", "CBR", returnDate, 1));
+        flights.forEach(flight -> flightIds.add(flight.getId()));
+        flightRepository.saveAll(flights);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRepository.deleteAllById(flightIds);
+    }
+
+    private Flight flight(String id, String origin, String destination, LocalDate date, int minuteOfDay) {
+        return new Flight(
+                id, id, origin, destination,
+                date.atStartOfDay().plusMinutes(minuteOfDay * 5L), date.atStartOfDay().plusMinutes(minuteOfDay * 5L + 90),
+                "Airbus A320",
+                new BigDecimal("149.00").add(BigDecimal.valueOf(minuteOfDay % 7)), new BigDecimal("299.00"),
+                new BigDecimal("699.00"), new BigDecimal("1199.00"),
+                150, 24, 12, 4,
+                150, 24, 12, 4,
+                true, 0
+        );
+    }
+
+    private ResponseEntity<String> stream(String query) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+        return restTemplate.exchange("http://localhost:" + port + "/api/v1/flights/search/stream?" + query,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private List<Map<String, Object>> lines(String body) throws Exception {
+        List<Map<String, Object>> flights = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            flights.add(objectMapper.readValue(line, Map.class));
+        }
+        return flights;
+    }
+
+    @Test
+    void streamFlights_Success_WritesEveryFlightAsOneLineBeyondPageCap() throws Exception {
+        ResponseEntity<String> response = stream("flightType=ONE_WAY&departureAirport=CBR&arrivalAirport=HBA"
+                + "&departureDate=" + outboundDate);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody()).endsWith("\n");
+        List<Map<String, Object>> flights = lines(response.getBody());
+        assertThat(flights).hasSize(150);
+        assertThat(flights.get(0)).containsEntry("id", "ST000").containsEntry("direct", true);
+        assertThat(flights.get(149)).containsEntry("id", "ST149");
+        assertThat((String) flights.get(0).get("departureTime")).startsWith(outboundDate.toString());
+    }
+
+    @Test
+    void streamFlights_Success_WritesReturnLegAfterOutbound() throws Exception {
+        ResponseEntity<String> response = stream("flightType=RETURN&departureAirport=CBR&arrivalAirport=HBA"
+                + "&departureDate=" + outboundDate + "&returnDate=" + returnDate + "&maxPrice=149.00");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Map<String, Object>> flights = lines(response.getBody());
+        assertThat(flights).extracting(flight -> flight.get("id"))
+                .containsExactly("ST000", "ST007", "ST014", "ST021", "ST028", "ST035", "ST042", "ST049", "ST056",
+                        "ST063", "ST070", "ST077", "ST084", "ST091", "ST098", "ST105", "ST112", "ST119", "ST126",
+                        "ST133", "ST140", "ST147", "ST900");
+    }
+
+    @Test
+    void streamFlights_Failure_RejectsInvalidSearch() {
+        ResponseEntity<String> response = stream("flightType=RETURN&departureAirport=CBR&arrivalAirport=HBA"
+                + "&departureDate=" + outboundDate);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("Return date is required for return flights");
+    }
+}
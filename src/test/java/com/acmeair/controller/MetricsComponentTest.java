@@ -0,0 +1,107 @@
+package com.acmeair.controller;
+
+import com.acmeair.service.SeatInventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class MetricsComponentTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    private static final String DEMO_API_KEY = "acme-air-demo-2025-secure-token-12345";
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    @Test
+    void prometheus_Success_ExposesServiceTimersWithoutApiKey() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+        restTemplate.exchange("http://localhost:" + port + "/api/v1/flights/FL001",
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        restTemplate.exchange("http://localhost:" + port + "/api/v1/flights/NONEXISTENT",
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("acmeair_flights_details_seconds_bucket")
+                .containsPattern("acmeair_flights_details_seconds_count\\{[^}]*exception=\"none\"")
+                .containsPattern("acmeair_flights_details_seconds_count\\{[^}]*exception=\"FlightNotFoundException\"")
+                .contains("acmeair_tokens_validate_seconds_count")
+                .contains("spring_data_repository_invocations_seconds_count")
+                .containsPattern("acmeair_inventory_seats_available\\{[^}]*seat_class=\"ECONOMY\"")
+                .contains("acmeair_tokens_index_size")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"api-token-unknown\"")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"flight-details\"")
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"flight-json\"")
+                .containsPattern("hibernate_second_level_cache_requests_total\\{[^}]*region=\"flights\"")
+                .contains("hibernate_cache_natural_id_requests_total");
+    }
+
+    @Test
+    void prometheus_Success_ReportsSeatsLeftOnFlightsThatHaveNotDeparted() {
+        jdbcTemplate.update("""
+            INSERT INTO flights (id, flight_number, origin, destination, departure_time, arrival_time, aircraft,
+                                 economy_price, premium_economy_price, business_price, first_class_price,
+                                 economy_available, premium_economy_available, business_available, first_class_available,
+                                 economy_total, premium_economy_total, business_total, first_class_total,
+                                 is_direct, stops, version)
+            VALUES ('FLMETRICS', 'AC999', 'SYD', 'PER', DATEADD('DAY', 30, CURRENT_TIMESTAMP),
+                    DATEADD('DAY', 30, CURRENT_TIMESTAMP), 'Boeing 737', 199.99, 299.99, 599.99, 999.99,
+                    117, 24, 16, 3, 120, 24, 16, 4, TRUE, 0, 0)
+            """);
+        try {
+            seatInventoryService.refreshAvailableSeatTotals();
+
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    "http://localhost:" + port + "/actuator/prometheus", String.class);
+
+            // The sample flights have all departed, so the new flight is the only one counted
+            assertThat(response.getBody())
+                    .containsPattern("acmeair_inventory_seats_available\\{[^}]*seat_class=\"ECONOMY\"[^}]*} 117\\.0")
+                    .containsPattern("acmeair_inventory_seats_available\\{[^}]*seat_class=\"FIRST_CLASS\"[^}]*} 3\\.0")
+                    .doesNotContain("acmeair_inventory_flights_tracked");
+        } finally {
+            jdbcTemplate.update("DELETE FROM flights WHERE id = 'FLMETRICS'");
+            seatInventoryService.refreshAvailableSeatTotals();
+        }
+    }
+
+    @Test
+    void actuator_Failure_OtherEndpointsAreNotReachable() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+
+        ResponseEntity<String> response = restTemplate.exchange("http://localhost:" + port + "/actuator/env",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+}
@@ -0,0 +1,90 @@
+package com.acmeair.controller;
+
+import com.acmeair.model.ApiToken;
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import com.acmeair.repository.ApiTokenRepository;
+import com.acmeair.security.TokenDigest;
+import com.acmeair.service.FlightService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SecondLevelCacheComponentTest {
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private ApiTokenRepository apiTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final String DEMO_API_KEY = "acme-air-demo-2025-secure-token-12345";
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getFlightById_Success_RepeatReadIsServedFromSecondLevelCache() {
+        flightService.getFlightById("FL008");
+        long fetches = statistics().getEntityStatistics(Flight.class.getName()).getFetchCount();
+        long hits = statistics().getDomainDataRegionStatistics("flights").getHitCount();
+
+        Flight flight = flightService.getFlightById("FL008");
+
+        assertThat(flight.getId()).isEqualTo("FL008");
+        assertThat(statistics().getEntityStatistics(Flight.class.getName()).getFetchCount()).isEqualTo(fetches);
+        assertThat(statistics().getDomainDataRegionStatistics("flights").getHitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    void getFlightById_Success_SeatChangeIsVisibleAfterCommit() {
+        Flight before = flightService.getFlightById("FL008");
+
+        flightService.updateAvailableSeats(before, SeatClass.FIRST_CLASS, 1);
+        Flight reserved = flightService.getFlightById("FL008");
+        flightService.increaseAvailableSeats(before, SeatClass.FIRST_CLASS, 1);
+        Flight released = flightService.getFlightById("FL008");
+
+        assertThat(reserved.getFirstClassAvailable()).isEqualTo(before.getFirstClassAvailable() - 1);
+        assertThat(released.getFirstClassAvailable()).isEqualTo(before.getFirstClassAvailable());
+    }
+
+    @Test
+    void updateAvailableSeats_Success_EvictsOnlyTheChangedFlight() {
+        Cache cache = entityManagerFactory.getCache();
+        Flight flight = flightService.getFlightById("FL008");
+        flightService.getFlightById("FL007");
+        assertThat(cache.contains(Flight.class, "FL007")).isTrue();
+
+        flightService.updateAvailableSeats(flight, SeatClass.FIRST_CLASS, 1);
+        flightService.increaseAvailableSeats(flight, SeatClass.FIRST_CLASS, 1);
+
+        assertThat(cache.contains(Flight.class, "FL008")).isFalse();
+        assertThat(cache.contains(Flight.class, "FL007")).isTrue();
+    }
+
+    @Test
+    void findActiveByTokenHash_Success_RepeatLookupIsServedFromNaturalIdCache() {
+        byte[] digest = TokenDigest.of(DEMO_API_KEY).toBytes();
+        apiTokenRepository.findActiveByTokenHash(digest);
+        long hits = statistics().getNaturalIdCacheHitCount();
+
+        Optional<ApiToken> token = apiTokenRepository.findActiveByTokenHash(digest);
+
+        assertThat(token).isPresent();
+        assertThat(statistics().getNaturalIdCacheHitCount()).isGreaterThan(hits);
+    }
+}
@@ -0,0 +1,66 @@
+package com.acmeair.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsComponentTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    private static final String DEMO_API_KEY = "acme-air-demo-2025-secure-token-12345";
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    @Test
+    void getFlightDetails_Success_ServesConcurrentRequestsOnVirtualThreads() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(API_KEY_HEADER, DEMO_API_KEY);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        String url = "http://localhost:" + port + "/api/v1/flights/FL001";
+
+        List<HttpStatusCode> statuses;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResponseEntity<Map>>> responses = IntStream.range(0, 50)
+                    .mapToObj(i -> clients.submit(() -> restTemplate.exchange(url, HttpMethod.GET, entity, Map.class)))
+                    .toList();
+            statuses = responses.stream().map(response -> {
+                try {
+                    return response.get().getStatusCode();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+        }
+
+        assertThat(virtualThreads).isTrue();
+        assertThat(statuses).hasSize(50).allMatch(status -> status.equals(HttpStatus.OK));
+    }
+}
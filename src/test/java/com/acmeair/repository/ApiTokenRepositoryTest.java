@@ -1,6 +1,7 @@
 package com.acmeair.repository;
 
 import com.acmeair.model.ApiToken;
+import com.acmeair.security.TokenDigest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,7 +18,8 @@ import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
 @TestPropertySource(properties = {
-        "spring.jpa.hibernate.ddl-auto=create-drop"
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
 })
 @DisplayName("ApiTokenRepository Tests")
 class ApiTokenRepositoryTest {
@@ -35,17 +37,17 @@ class ApiTokenRepositoryTest {
     @BeforeEach
     void setUp() {
         activeToken = new ApiToken(
-                "TK12345678", "active-token-value-123", "Active Test Token",
+                "TK12345678", TokenDigest.of("active-token-value-123").toBytes(), "Active Test Token",
                 LocalDateTime.of(2025, 8, 10, 10, 0, 0), true
         );
 
         inactiveToken = new ApiToken(
-                "TK87654321", "inactive-token-value-456", "Inactive Test Token",
+                "TK87654321", TokenDigest.of("inactive-token-value-456").toBytes(), "Inactive Test Token",
                 LocalDateTime.of(2025, 8, 9, 15, 30, 0), false
         );
 
         demoToken = new ApiToken(
-                "TK11111111", "acme-air-demo-2025-secure-token-12345", "Demo API Token",
+                "TK11111111", TokenDigest.of("acme-air-demo-2025-secure-token-12345").toBytes(), "Demo API Token",
                 LocalDateTime.of(2025, 8, 1, 0, 0, 0), true
         );
 
@@ -62,7 +64,7 @@ class ApiTokenRepositoryTest {
         @DisplayName("Should save a new API token successfully")
         void shouldSaveNewApiTokenSuccessfully() {
             ApiToken newToken = new ApiToken(
-                    "TK99999999", "new-secure-token-789", "New Test Token",
+                    "TK99999999", TokenDigest.of("new-secure-token-789").toBytes(), "New Test Token",
                     LocalDateTime.now(), true
             );
 
@@ -70,7 +72,8 @@ class ApiTokenRepositoryTest {
 
             assertThat(savedToken).isNotNull();
             assertThat(savedToken.getId()).isEqualTo("TK99999999");
-            assertThat(savedToken.getTokenValue()).isEqualTo("new-secure-token-789");
+            assertThat(savedToken.getTokenHash()).isEqualTo(TokenDigest.of("new-secure-token-789").toBytes());
+            assertThat(savedToken.getLastModified()).isNotNull();
             assertThat(savedToken.getDescription()).isEqualTo("New Test Token");
             assertThat(savedToken.isActive()).isTrue();
             assertThat(savedToken.getCreatedTime()).isNotNull();
@@ -83,7 +86,7 @@ class ApiTokenRepositoryTest {
 
             assertThat(result).isPresent();
             assertThat(result.get().getId()).isEqualTo("TK12345678");
-            assertThat(result.get().getTokenValue()).isEqualTo("active-token-value-123");
+            assertThat(result.get().getTokenHash()).isEqualTo(TokenDigest.of("active-token-value-123").toBytes());
             assertThat(result.get().getDescription()).isEqualTo("Active Test Token");
             assertThat(result.get().isActive()).isTrue();
             assertThat(result.get().getCreatedTime()).isEqualTo(LocalDateTime.of(2025, 8, 10, 10, 0, 0));
@@ -137,4 +140,37 @@ class ApiTokenRepositoryTest {
             assertThat(apiTokenRepository.count()).isEqualTo(2);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Token Hash Lookups")
+    class TokenHashLookups {
+
+        @Test
+        @DisplayName("Should find active token by its digest")
+        void shouldFindActiveTokenByDigest() {
+            Optional<ApiToken> result = apiTokenRepository.findActiveByTokenHash(
+                    TokenDigest.of("active-token-value-123").toBytes());
+
+            assertThat(result).isPresent();
+            assertThat(result.get().getId()).isEqualTo("TK12345678");
+        }
+
+        @Test
+        @DisplayName("Should not find inactive or unknown tokens by digest")
+        void shouldNotFindInactiveOrUnknownTokensByDigest() {
+            assertThat(apiTokenRepository.findActiveByTokenHash(
+                    TokenDigest.of("inactive-token-value-456").toBytes())).isEmpty();
+            assertThat(apiTokenRepository.findActiveByTokenHash(
+                    TokenDigest.of("unknown-token").toBytes())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return tokens modified since a point in time")
+        void shouldReturnTokensModifiedSince() {
+            LocalDateTime before = LocalDateTime.now().minusDays(1);
+
+            assertThat(apiTokenRepository.findByLastModifiedGreaterThanEqual(before)).hasSize(3);
+            assertThat(apiTokenRepository.findByLastModifiedGreaterThanEqual(LocalDateTime.now().plusDays(1))).isEmpty();
+        }
+    }
+}
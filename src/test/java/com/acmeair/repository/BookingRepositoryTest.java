@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.TestPropertySource;
 
 import java.math.BigDecimal;
@@ -19,7 +20,8 @@ import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
 @TestPropertySource(properties = {
-        "spring.jpa.hibernate.ddl-auto=create-drop"
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
 })
 @DisplayName("BookingRepository Tests")
 class BookingRepositoryTest {
@@ -199,4 +201,42 @@ class BookingRepositoryTest {
             assertThat(bookingRepository.count()).isEqualTo(2);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Seat Claim Queries")
+    class SeatClaimQueries {
+
+        @Test
+        @DisplayName("Should return the seats claimed on a flight")
+        void shouldReturnClaimedSeats() {
+            bookingRepository.claimSeat("FL001", "12A");
+            bookingRepository.claimSeat("FL001", "3A");
+            bookingRepository.claimSeat("FL025", "4B");
+
+            assertThat(bookingRepository.findClaimedSeatNumbers("FL001")).containsExactlyInAnyOrder("12A", "3A");
+            assertThat(bookingRepository.findClaimedSeatNumbers("FL025")).containsExactly("4B");
+        }
+
+        @Test
+        @DisplayName("Should reject a return-leg claim on a seat an outbound leg holds")
+        void shouldRejectSameSeatFromOtherLeg() {
+            // Outbound seat of one booking, then the return seat of another on the same flight
+            bookingRepository.claimSeat("FL025", "4B");
+
+            assertThatThrownBy(() -> bookingRepository.claimSeat("FL025", "4B"))
+                    .isInstanceOf(DataIntegrityViolationException.class)
+                    .hasMessageContaining("BOOKING_SEATS");
+        }
+
+        @Test
+        @DisplayName("Should free a seat once its claim is released")
+        void shouldFreeReleasedSeat() {
+            bookingRepository.claimSeat("FL001", "12A");
+
+            int released = bookingRepository.releaseSeatClaim("FL001", "12A");
+
+            assertThat(released).isEqualTo(1);
+            assertThat(bookingRepository.findClaimedSeatNumbers("FL001")).isEmpty();
+        }
+    }
+}
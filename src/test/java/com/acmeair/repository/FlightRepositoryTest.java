@@ -1,6 +1,9 @@
 package com.acmeair.repository;
 
+import com.acmeair.dto.FlightView;
 import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,13 +19,16 @@ import org.springframework.test.context.TestPropertySource;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @TestPropertySource(properties = {
-        "spring.jpa.hibernate.ddl-auto=create-drop"
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
 })
 @DisplayName("FlightRepository Tests")
 class FlightRepositoryTest {
@@ -142,37 +148,49 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, pageable
             );
 
             // Then
             assertThat(results.getContent()).hasSize(4); // All SYD->MEL flights
-            assertThat(results.getContent()).extracting(Flight::getOrigin).containsOnly("SYD");
-            assertThat(results.getContent()).extracting(Flight::getDestination).containsOnly("MEL");
-            assertThat(results.getContent()).extracting(Flight::getId)
+            assertThat(results.getContent()).extracting(FlightView::origin).containsOnly("SYD");
+            assertThat(results.getContent()).extracting(FlightView::destination).containsOnly("MEL");
+            assertThat(results.getContent()).extracting(FlightView::id)
                     .containsExactlyInAnyOrder("FL001", "FL006", "FL999", "FL028");
         }
 
         @Test
-        @DisplayName("Should handle case-insensitive airport codes")
-        void shouldHandleCaseInsensitiveAirportCodes() {
-            // Given
+        @DisplayName("Should store airport codes upper-case so searches match exactly")
+        void shouldNormalizeAirportCodesOnWrite() {
+            // Given - A flight saved with lowercase airport codes
+            Flight lowercaseFlight = new Flight(
+                    "FL500", "AC500", "syd", " mel ",
+                    LocalDateTime.of(2025, 8, 15, 20, 0),
+                    LocalDateTime.of(2025, 8, 15, 21, 30),
+                    "Boeing 737",
+                    new BigDecimal("189.99"), new BigDecimal("289.99"),
+                    new BigDecimal("589.99"), new BigDecimal("989.99"),
+                    120, 24, 16, 4,
+                    120, 24, 16, 4,
+                    true, 0
+            );
+            entityManager.persistAndFlush(lowercaseFlight);
             LocalDateTime startOfDay = LocalDateTime.of(2025, 8, 15, 0, 0);
             LocalDateTime endOfDay = LocalDateTime.of(2025, 8, 16, 0, 0);
             Pageable pageable = PageRequest.of(0, 10);
 
-            // When - Using lowercase airport codes
-            Page<Flight> results = flightRepository.findFlights(
-                    "syd", "mel", startOfDay, endOfDay,
+            // When
+            Page<FlightView> results = flightRepository.findFlightViews(
+                    "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, pageable
             );
 
             // Then
-            assertThat(results.getContent()).hasSize(4);
-            assertThat(results.getContent()).extracting(Flight::getOrigin).containsOnly("SYD");
-            assertThat(results.getContent()).extracting(Flight::getDestination).containsOnly("MEL");
+            assertThat(results.getContent()).hasSize(5);
+            assertThat(results.getContent()).extracting(FlightView::origin).containsOnly("SYD");
+            assertThat(results.getContent()).extracting(FlightView::destination).containsOnly("MEL");
         }
 
         @Test
@@ -184,7 +202,7 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Searching for non-existent route
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "PER", startOfDay, endOfDay,
                     null, null, null, pageable
             );
@@ -216,14 +234,14 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, pageable
             );
 
             // Then - Should not include next day flight
             assertThat(results.getContent()).hasSize(4);
-            assertThat(results.getContent()).extracting(Flight::getId)
+            assertThat(results.getContent()).extracting(FlightView::id)
                     .doesNotContain("FL100");
         }
     }
@@ -241,17 +259,17 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Filter by minimum price of 180 (excludes cheap flight at 129.99 and connecting at 179.99)
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     new BigDecimal("180.00"), null, null, pageable
             );
 
             // Then
             assertThat(results.getContent()).hasSize(2);
-            assertThat(results.getContent()).extracting(Flight::getId)
+            assertThat(results.getContent()).extracting(FlightView::id)
                     .containsExactlyInAnyOrder("FL001", "FL999");
             assertThat(results.getContent()).allSatisfy(flight ->
-                    assertThat(flight.getEconomyPrice()).isGreaterThanOrEqualTo(new BigDecimal("180.00"))
+                    assertThat(flight.economyPrice()).isGreaterThanOrEqualTo(new BigDecimal("180.00"))
             );
         }
 
@@ -264,17 +282,17 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Filter by maximum price of 200 (excludes expensive flight at 899.99)
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, new BigDecimal("200.00"), null, pageable
             );
 
             // Then
             assertThat(results.getContent()).hasSize(3);
-            assertThat(results.getContent()).extracting(Flight::getId)
+            assertThat(results.getContent()).extracting(FlightView::id)
                     .containsExactlyInAnyOrder("FL001", "FL006", "FL028");
             assertThat(results.getContent()).allSatisfy(flight ->
-                    assertThat(flight.getEconomyPrice()).isLessThanOrEqualTo(new BigDecimal("200.00"))
+                    assertThat(flight.economyPrice()).isLessThanOrEqualTo(new BigDecimal("200.00"))
             );
         }
 
@@ -287,14 +305,14 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Filter by price range 175-205 (should include FL001 at 199.99 and FL006 at 179.99)
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     new BigDecimal("175.00"), new BigDecimal("205.00"), null, pageable
             );
 
             // Then
             assertThat(results.getContent()).hasSize(2);
-            assertThat(results.getContent()).extracting(Flight::getId)
+            assertThat(results.getContent()).extracting(FlightView::id)
                     .containsExactlyInAnyOrder("FL001", "FL006");
         }
 
@@ -307,7 +325,7 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Filter by price range that no flights match
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     new BigDecimal("1000.00"), new BigDecimal("1500.00"), null, pageable
             );
@@ -325,7 +343,7 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Both price filters are null
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, pageable
             );
@@ -348,17 +366,17 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Filter for direct flights only
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, true, pageable
             );
 
             // Then - Should exclude connecting flight (FL006)
             assertThat(results.getContent()).hasSize(3);
-            assertThat(results.getContent()).extracting(Flight::getId)
+            assertThat(results.getContent()).extracting(FlightView::id)
                     .containsExactlyInAnyOrder("FL001", "FL999", "FL028");
             assertThat(results.getContent()).allSatisfy(flight ->
-                    assertThat(flight.isDirect()).isTrue()
+                    assertThat(flight.direct()).isTrue()
             );
         }
 
@@ -371,14 +389,14 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Filter with directFlightsOnly = false
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, false, pageable
             );
 
             // Then - Should include all flights (direct and connecting)
             assertThat(results.getContent()).hasSize(4);
-            assertThat(results.getContent()).extracting(Flight::getId)
+            assertThat(results.getContent()).extracting(FlightView::id)
                     .containsExactlyInAnyOrder("FL001", "FL006", "FL999", "FL028");
         }
 
@@ -391,7 +409,7 @@ class FlightRepositoryTest {
             Pageable pageable = PageRequest.of(0, 10);
 
             // When - Filter with directFlightsOnly = null
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, pageable
             );
@@ -414,7 +432,7 @@ class FlightRepositoryTest {
 
             // When - First page with size 2
             Pageable firstPage = PageRequest.of(0, 2);
-            Page<Flight> firstResults = flightRepository.findFlights(
+            Page<FlightView> firstResults = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, firstPage
             );
@@ -428,7 +446,7 @@ class FlightRepositoryTest {
 
             // When - Second page
             Pageable secondPage = PageRequest.of(1, 2);
-            Page<Flight> secondResults = flightRepository.findFlights(
+            Page<FlightView> secondResults = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, secondPage
             );
@@ -448,7 +466,7 @@ class FlightRepositoryTest {
             Pageable sortedPageable = PageRequest.of(0, 10, Sort.by("departureTime").ascending());
 
             // When
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, sortedPageable
             );
@@ -456,11 +474,11 @@ class FlightRepositoryTest {
             // Then - Results should be sorted by departure time
             assertThat(results.getContent()).hasSize(4);
             LocalDateTime previousDepartureTime = null;
-            for (Flight flight : results.getContent()) {
+            for (FlightView flight : results.getContent()) {
                 if (previousDepartureTime != null) {
-                    assertThat(flight.getDepartureTime()).isAfterOrEqualTo(previousDepartureTime);
+                    assertThat(flight.departureTime()).isAfterOrEqualTo(previousDepartureTime);
                 }
-                previousDepartureTime = flight.getDepartureTime();
+                previousDepartureTime = flight.departureTime();
             }
         }
 
@@ -473,15 +491,94 @@ class FlightRepositoryTest {
             Pageable sortedPageable = PageRequest.of(0, 10, Sort.by("economyPrice").ascending());
 
             // When
-            Page<Flight> results = flightRepository.findFlights(
+            Page<FlightView> results = flightRepository.findFlightViews(
                     "SYD", "MEL", startOfDay, endOfDay,
                     null, null, null, sortedPageable
             );
 
             // Then - Results should be sorted by price (ascending)
             assertThat(results.getContent()).hasSize(4);
-            assertThat(results.getContent().get(0).getId()).isEqualTo("FL028"); // Cheapest at 129.99
-            assertThat(results.getContent().get(3).getId()).isEqualTo("FL999"); // Most expensive at 899.99
+            assertThat(results.getContent().get(0).id()).isEqualTo("FL028"); // Cheapest at 129.99
+            assertThat(results.getContent().get(3).id()).isEqualTo("FL999"); // Most expensive at 899.99
+        }
+    }
+
+    @Nested
+    @DisplayName("Projection Query Tests")
+    class ProjectionQueryTests {
+
+        @Test
+        @DisplayName("Should project search results into detached flight views")
+        void shouldProjectSearchResultsIntoFlightViews() {
+            // Given
+            LocalDateTime startOfDay = LocalDateTime.of(2025, 8, 15, 0, 0);
+            LocalDateTime endOfDay = LocalDateTime.of(2025, 8, 16, 0, 0);
+            Pageable pageable = PageRequest.of(0, 2, Sort.by("economyPrice").ascending());
+            entityManager.clear();
+
+            // When
+            Page<FlightView> results = flightRepository.findFlightViews(
+                    "SYD", "MEL", startOfDay, endOfDay,
+                    null, null, null, pageable
+            );
+
+            // Then
+            assertThat(results.getTotalElements()).isEqualTo(4);
+            assertThat(results.getContent()).extracting(FlightView::id).containsExactly("FL028", "FL006");
+            FlightView cheapest = results.getContent().get(0);
+            assertThat(cheapest.economyPrice()).isEqualByComparingTo("129.99");
+            assertThat(cheapest.totalSeats()).isEqualTo(164);
+            assertThat(cheapest.direct()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should not leave projected flights managed by the persistence context")
+        void shouldNotManageProjectedFlights() {
+            // Given
+            LocalDateTime startOfDay = LocalDateTime.of(2025, 8, 15, 0, 0);
+            LocalDateTime endOfDay = LocalDateTime.of(2025, 8, 16, 0, 0);
+            entityManager.clear();
+
+            // When
+            flightRepository.findFlightViews("SYD", "MEL", startOfDay, endOfDay,
+                    null, null, null, PageRequest.of(0, 10));
+
+            // Then
+            Session session = entityManager.getEntityManager().unwrap(Session.class);
+            assertThat(session.getStatistics().getEntityCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should load flight views departing from a given time")
+        void shouldFindFlightViewsDepartingFrom() {
+            // When
+            List<FlightView> results = flightRepository.findFlightViewsDepartingFrom(
+                    LocalDateTime.of(2025, 8, 15, 18, 0));
+
+            // Then
+            assertThat(results).extracting(FlightView::id)
+                    .containsExactlyInAnyOrder("FL006", "FL999", "FL028");
+        }
+
+        @Test
+        @DisplayName("Should stream every matching flight view in sort order without a page limit")
+        void shouldStreamFlightViewsInSortOrder() {
+            // Given
+            LocalDateTime startOfDay = LocalDateTime.of(2025, 8, 15, 0, 0);
+            LocalDateTime endOfDay = LocalDateTime.of(2025, 8, 16, 0, 0);
+            entityManager.clear();
+
+            // When
+            List<FlightView> results;
+            try (Stream<FlightView> stream = flightRepository.streamFlightViews("SYD", "MEL", startOfDay, endOfDay,
+                    null, new BigDecimal("500.00"), null, Sort.by("economyPrice", "id").descending())) {
+                results = stream.toList();
+            }
+
+            // Then
+            assertThat(results).extracting(FlightView::id).containsExactly("FL001", "FL006", "FL028");
+            Session session = entityManager.getEntityManager().unwrap(Session.class);
+            assertThat(session.getStatistics().getEntityCount()).isZero();
         }
     }
 
@@ -564,4 +661,54 @@ class FlightRepositoryTest {
             assertThat(flightRepository.count()).isEqualTo(5);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Conditional Seat Reservation Tests")
+    class ConditionalSeatReservationTests {
+
+        @Test
+        @DisplayName("Should decrement seats and bump version when enough seats remain")
+        void shouldReserveSeatsWhenAvailable() {
+            // Given
+            long versionBefore = flightRepository.findById("FL001").orElseThrow().getVersion();
+            entityManager.clear();
+
+            // When
+            int updated = flightRepository.reserveSeats("FL001", SeatClass.BUSINESS, 3);
+            entityManager.clear();
+
+            // Then
+            Flight flight = flightRepository.findById("FL001").orElseThrow();
+            assertThat(updated).isEqualTo(1);
+            assertThat(flight.getBusinessAvailable()).isEqualTo(13);
+            assertThat(flight.getVersion()).isEqualTo(versionBefore + 1);
+        }
+
+        @Test
+        @DisplayName("Should not update any row when not enough seats remain")
+        void shouldNotReserveSeatsWhenNotEnoughAvailable() {
+            // When
+            int updated = flightRepository.reserveSeats("FL001", SeatClass.FIRST_CLASS, 5);
+            entityManager.clear();
+
+            // Then
+            assertThat(updated).isZero();
+            assertThat(flightRepository.findById("FL001").orElseThrow().getFirstClassAvailable()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should restore seats on release")
+        void shouldReleaseSeats() {
+            // Given
+            flightRepository.reserveSeats("FL001", SeatClass.ECONOMY, 2);
+
+            // When
+            int updated = flightRepository.releaseSeats("FL001", SeatClass.ECONOMY, 1);
+            entityManager.clear();
+
+            // Then
+            assertThat(updated).isEqualTo(1);
+            assertThat(flightRepository.findById("FL001").orElseThrow().getEconomyAvailable()).isEqualTo(119);
+        }
+    }
+}
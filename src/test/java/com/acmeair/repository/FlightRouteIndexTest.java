@@ -0,0 +1,41 @@
+package com.acmeair.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@DisplayName("Flight search index Tests")
+class FlightRouteIndexTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Should resolve a route and day search with the composite route index")
+    void shouldUseCompositeRouteIndex() {
+        // Given - The schema created by the Liquibase changelog
+        String search = """
+                SELECT * FROM flights
+                WHERE origin = 'SYD' AND destination = 'MEL'
+                AND departure_time >= TIMESTAMP '2025-08-15 00:00:00'
+                AND departure_time < TIMESTAMP '2025-08-16 00:00:00'
+                """;
+
+        // When
+        String plan = (String) entityManager.createNativeQuery("EXPLAIN " + search).getSingleResult();
+
+        // Then
+        assertThat(plan).containsIgnoringCase("IDX_ROUTE_DEPARTURE_TIME");
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+}
@@ -0,0 +1,83 @@
+package com.acmeair.service;
+
+import com.acmeair.model.ApiToken;
+import com.acmeair.repository.ApiTokenRepository;
+import com.acmeair.security.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiTokenIndexTest {
+
+    @Mock
+    private ApiTokenRepository apiTokenRepository;
+
+    private ApiTokenIndex apiTokenIndex;
+
+    private ApiToken activeToken;
+
+    @BeforeEach
+    void setUp() {
+        apiTokenIndex = new ApiTokenIndex(apiTokenRepository, Duration.ofMinutes(1));
+        activeToken = new ApiToken("TK12345678", TokenDigest.of("active-token").toBytes(), "Active Token",
+                LocalDateTime.of(2025, 8, 10, 10, 0), true);
+        activeToken.setLastModified(LocalDateTime.of(2025, 8, 10, 10, 0));
+    }
+
+    @Test
+    void load_Success_IndexesActiveTokens() {
+        // Arrange
+        when(apiTokenRepository.findByActiveTrue()).thenReturn(List.of(activeToken));
+
+        // Act
+        apiTokenIndex.load();
+
+        // Assert
+        assertThat(apiTokenIndex.size()).isEqualTo(1);
+        assertThat(apiTokenIndex.contains(TokenDigest.of("active-token"))).isTrue();
+        assertThat(apiTokenIndex.contains(TokenDigest.of("other-token"))).isFalse();
+    }
+
+    @Test
+    void refresh_Success_AppliesChangesSinceWatermarkMinusOverlap() {
+        // Arrange
+        when(apiTokenRepository.findByActiveTrue()).thenReturn(List.of(activeToken));
+        apiTokenIndex.load();
+        ApiToken deactivated = new ApiToken("TK12345678", TokenDigest.of("active-token").toBytes(), "Active Token",
+                LocalDateTime.of(2025, 8, 10, 10, 0), false);
+        deactivated.setLastModified(LocalDateTime.of(2025, 8, 10, 11, 0));
+        when(apiTokenRepository.findByLastModifiedGreaterThanEqual(LocalDateTime.of(2025, 8, 10, 9, 59)))
+                .thenReturn(List.of(deactivated));
+
+        // Act
+        apiTokenIndex.refresh();
+
+        // Assert
+        assertThat(apiTokenIndex.contains(TokenDigest.of("active-token"))).isFalse();
+    }
+
+    @Test
+    void refresh_Failure_KeepsSnapshotWhenQueryFails() {
+        // Arrange
+        apiTokenIndex.apply(activeToken);
+        when(apiTokenRepository.findByLastModifiedGreaterThanEqual(any()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        // Act
+        apiTokenIndex.refresh();
+
+        // Assert
+        assertThat(apiTokenIndex.contains(TokenDigest.of("active-token"))).isTrue();
+    }
+}
@@ -2,14 +2,16 @@ package com.acmeair.service;
 
 import com.acmeair.model.ApiToken;
 import com.acmeair.repository.ApiTokenRepository;
+import com.acmeair.security.TokenDigest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -22,35 +24,59 @@ class ApiTokenServiceTest {
     @Mock
     private ApiTokenRepository apiTokenRepository;
 
-    @InjectMocks
+    private ApiTokenIndex apiTokenIndex;
+
     private ApiTokenService apiTokenService;
 
     private ApiToken testToken;
 
     @BeforeEach
     void setUp() {
-        testToken = new ApiToken("TK12345678", "test-token-value", "Test Token",
+        apiTokenIndex = new ApiTokenIndex(apiTokenRepository, Duration.ofMinutes(1));
+        apiTokenService = new ApiTokenService(apiTokenRepository, apiTokenIndex, 100, Duration.ofSeconds(30));
+        testToken = new ApiToken("TK12345678", TokenDigest.of("valid-token").toBytes(), "Test Token",
                 LocalDateTime.now(), true);
+        testToken.setLastModified(LocalDateTime.now());
+    }
+
+    private static byte[] digestOf(String token) {
+        return argThat(bytes -> TokenDigest.fromBytes(bytes).equals(TokenDigest.of(token)));
     }
 
     @Test
-    void isValidToken_Success_ReturnsTrueForValidActiveToken() {
+    void isValidToken_Success_ReturnsTrueFromIndexWithoutQuery() {
         // Arrange
-        when(apiTokenRepository.findByTokenValueAndActiveTrue("valid-token"))
-                .thenReturn(Optional.of(testToken));
+        apiTokenIndex.apply(testToken);
 
         // Act
         boolean result = apiTokenService.isValidToken("valid-token");
 
         // Assert
         assertThat(result).isTrue();
-        verify(apiTokenRepository).findByTokenValueAndActiveTrue("valid-token");
+        verifyNoInteractions(apiTokenRepository);
+    }
+
+    @Test
+    void isValidToken_Success_FallsBackToDatabaseAndIndexesToken() {
+        // Arrange
+        when(apiTokenRepository.findActiveByTokenHash(digestOf("valid-token")))
+                .thenReturn(Optional.of(testToken));
+
+        // Act
+        boolean first = apiTokenService.isValidToken("valid-token");
+        boolean second = apiTokenService.isValidToken("valid-token");
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(apiTokenIndex.contains(TokenDigest.of("valid-token"))).isTrue();
+        verify(apiTokenRepository, times(1)).findActiveByTokenHash(any());
     }
 
     @Test
     void isValidToken_Failure_ReturnsFalseForInvalidToken() {
         // Arrange
-        when(apiTokenRepository.findByTokenValueAndActiveTrue("invalid-token"))
+        when(apiTokenRepository.findActiveByTokenHash(digestOf("invalid-token")))
                 .thenReturn(Optional.empty());
 
         // Act
@@ -58,21 +84,50 @@ class ApiTokenServiceTest {
 
         // Assert
         assertThat(result).isFalse();
-        verify(apiTokenRepository).findByTokenValueAndActiveTrue("invalid-token");
     }
 
     @Test
     void isValidToken_Failure_ReturnsFalseForNullToken() {
+        // Act
+        boolean result = apiTokenService.isValidToken(null);
+
+        // Assert
+        assertThat(result).isFalse();
+        verifyNoInteractions(apiTokenRepository);
+    }
+
+    @Test
+    void isValidToken_Success_AcceptsTokenCreatedElsewhereOnceIndexRefreshes() {
+        // Arrange
+        when(apiTokenRepository.findActiveByTokenHash(digestOf("valid-token"))).thenReturn(Optional.empty());
+        boolean beforeRefresh = apiTokenService.isValidToken("valid-token");
+        when(apiTokenRepository.findByLastModifiedGreaterThanEqual(any())).thenReturn(List.of(testToken));
+
+        // Act
+        apiTokenIndex.refresh();
+        boolean afterRefresh = apiTokenService.isValidToken("valid-token");
+
+        // Assert
+        assertThat(beforeRefresh).isFalse();
+        assertThat(afterRefresh).isTrue();
+        verify(apiTokenRepository, times(1)).findActiveByTokenHash(any());
+    }
+
+    @Test
+    void isValidToken_Failure_CachesUnknownTokenAfterFirstLookup() {
         // Arrange
-        when(apiTokenRepository.findByTokenValueAndActiveTrue(null))
+        when(apiTokenRepository.findActiveByTokenHash(digestOf("invalid-token")))
                 .thenReturn(Optional.empty());
 
         // Act
-        boolean result = apiTokenService.isValidToken(null);
+        apiTokenService.isValidToken("invalid-token");
+        boolean result = apiTokenService.isValidToken("invalid-token");
 
         // Assert
         assertThat(result).isFalse();
-        verify(apiTokenRepository).findByTokenValueAndActiveTrue(null);
+        verify(apiTokenRepository, times(1)).findActiveByTokenHash(any());
+        assertThat(apiTokenService.getCacheStats().hitCount()).isEqualTo(1);
+        assertThat(apiTokenService.getCacheStats().missCount()).isEqualTo(1);
     }
 
     @Test
@@ -95,7 +150,7 @@ class ApiTokenServiceTest {
             ApiToken token = invocation.getArgument(0);
             assertThat(token.getId()).startsWith("TK");
             assertThat(token.getId()).hasSize(10); // TK + 8 characters
-            assertThat(token.getTokenValue()).isEqualTo("test-value");
+            assertThat(token.getTokenHash()).isEqualTo(TokenDigest.of("test-value").toBytes());
             assertThat(token.getDescription()).isEqualTo("Test Description");
             assertThat(token.isActive()).isTrue();
             assertThat(token.getCreatedTime()).isNotNull();
@@ -108,4 +163,40 @@ class ApiTokenServiceTest {
         // Assert - Verification happens in the mock answer above
         verify(apiTokenRepository).save(any(ApiToken.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createToken_Success_ReplacesCachedNegativeEntry() {
+        // Arrange
+        when(apiTokenRepository.findActiveByTokenHash(digestOf("new-token-value")))
+                .thenReturn(Optional.empty());
+        when(apiTokenRepository.save(any(ApiToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        apiTokenService.isValidToken("new-token-value");
+
+        // Act
+        apiTokenService.createToken("new-token-value", "New Test Token");
+        boolean result = apiTokenService.isValidToken("new-token-value");
+
+        // Assert
+        assertThat(result).isTrue();
+        verify(apiTokenRepository, times(1)).findActiveByTokenHash(any());
+    }
+
+    @Test
+    void deactivateToken_Success_RemovesTokenFromIndex() {
+        // Arrange
+        apiTokenIndex.apply(testToken);
+        when(apiTokenRepository.findById("TK12345678")).thenReturn(Optional.of(testToken));
+        when(apiTokenRepository.save(testToken)).thenReturn(testToken);
+        when(apiTokenRepository.findActiveByTokenHash(digestOf("valid-token")))
+                .thenReturn(Optional.empty());
+
+        // Act
+        apiTokenService.deactivateToken("TK12345678");
+        boolean result = apiTokenService.isValidToken("valid-token");
+
+        // Assert
+        assertThat(result).isFalse();
+        assertThat(testToken.isActive()).isFalse();
+        assertThat(apiTokenIndex.contains(TokenDigest.of("valid-token"))).isFalse();
+    }
+}
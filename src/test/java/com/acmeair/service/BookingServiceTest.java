@@ -9,11 +9,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -35,6 +37,9 @@ class BookingServiceTest {
     @Mock
     private SeatAllocationService seatAllocationService;
 
+    @Spy
+    private IdGenerator idGenerator = new IdGenerator(1);
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -67,11 +72,11 @@ class BookingServiceTest {
     @Test
     void createBooking_Success_OneWayFlight() {
         // Arrange
-        when(flightService.hasAvailableSeats("FL001", SeatClass.ECONOMY)).thenReturn(true);
+        when(flightService.getFlightsById(List.of("FL001"))).thenReturn(List.of(testFlight));
+        when(flightService.reserveSeatsOnLegs(List.of(testFlight), SeatClass.ECONOMY, 1)).thenReturn(Optional.empty());
         when(passengerService.createPassenger(any(Passenger.class))).thenReturn(testPassenger);
-        when(flightService.getFlightById("FL001")).thenReturn(testFlight);
         when(seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY)).thenReturn("12A");
-        when(flightService.getPrice("FL001", SeatClass.ECONOMY)).thenReturn(new BigDecimal("199.99"));
+        when(flightService.getPrice(testFlight, SeatClass.ECONOMY)).thenReturn(new BigDecimal("199.99"));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
 
         // Act
@@ -85,27 +90,35 @@ class BookingServiceTest {
         assertThat(result.getSeatClass()).isEqualTo(SeatClass.ECONOMY);
         assertThat(result.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
 
-        verify(flightService).updateAvailableSeats("FL001", SeatClass.ECONOMY, 1);
+        verify(flightService, times(1)).getFlightsById(List.of("FL001"));
+        verify(flightService, never()).getFlightById(anyString());
+        verify(flightService).reserveSeatsOnLegs(List.of(testFlight), SeatClass.ECONOMY, 1);
+        verify(flightService, never()).hasAvailableSeats(anyString(), any(SeatClass.class));
         verify(bookingRepository).save(any(Booking.class));
     }
 
     @Test
     void createBooking_Success_ReturnFlight() {
         // Arrange
-        when(flightService.hasAvailableSeats("FL001", SeatClass.ECONOMY)).thenReturn(true);
-        when(flightService.hasAvailableSeats("FL025", SeatClass.ECONOMY)).thenReturn(true);
+        Flight returnFlight = new Flight(
+                "FL025", "AC107", "MEL", "SYD",
+                LocalDateTime.of(2025, 8, 20, 6, 0),
+                LocalDateTime.of(2025, 8, 20, 7, 30),
+                "Boeing 737",
+                new BigDecimal("209.99"), new BigDecimal("309.99"),
+                new BigDecimal("609.99"), new BigDecimal("1009.99"),
+                120, 24, 16, 4,
+                120, 24, 16, 4,
+                true, 0
+        );
+        when(flightService.getFlightsById(List.of("FL001", "FL025"))).thenReturn(List.of(testFlight, returnFlight));
+        when(flightService.reserveSeatsOnLegs(List.of(testFlight, returnFlight), SeatClass.ECONOMY, 1)).thenReturn(Optional.empty());
         when(passengerService.createPassenger(any(Passenger.class))).thenReturn(testPassenger);
-        when(flightService.getFlightById("FL001")).thenReturn(testFlight);
-        when(flightService.getFlightById("FL025")).thenReturn(testFlight);
         when(seatAllocationService.allocateSeat(any(Flight.class), eq(SeatClass.ECONOMY)))
                 .thenReturn("12A").thenReturn("15B");
-        when(flightService.getPrice("FL001", SeatClass.ECONOMY)).thenReturn(new BigDecimal("199.99"));
-        when(flightService.getPrice("FL025", SeatClass.ECONOMY)).thenReturn(new BigDecimal("209.99"));
-
-        Booking returnBooking = new Booking("BK87654321", "FL001", "FL025", testPassenger,
-                LocalDateTime.now(), BookingStatus.CONFIRMED, SeatClass.ECONOMY,
-                FlightType.RETURN, "12A", "15B", new BigDecimal("409.98"));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(returnBooking);
+        when(flightService.getPrice(testFlight, SeatClass.ECONOMY)).thenReturn(new BigDecimal("199.99"));
+        when(flightService.getPrice(returnFlight, SeatClass.ECONOMY)).thenReturn(new BigDecimal("209.99"));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         Booking result = bookingService.createBooking(FlightType.RETURN, "FL001", "FL025",
@@ -116,14 +129,60 @@ class BookingServiceTest {
         assertThat(result.getReturnFlightId()).isEqualTo("FL025");
         assertThat(result.getTotalPrice()).isEqualTo(new BigDecimal("409.98"));
 
-        verify(flightService).updateAvailableSeats("FL001", SeatClass.ECONOMY, 1);
-        verify(flightService).updateAvailableSeats("FL025", SeatClass.ECONOMY, 1);
+        verify(flightService, times(1)).getFlightsById(List.of("FL001", "FL025"));
+        verify(flightService, times(1)).reserveSeatsOnLegs(List.of(testFlight, returnFlight), SeatClass.ECONOMY, 1);
+        verify(flightService, never()).getFlightById(anyString());
+    }
+
+    @Test
+    void createGroupBooking_Success_ReservesAllSeatsInOneUpdate() {
+        // Arrange
+        Passenger second = new Passenger(null, "Jane", "Doe", "jane.doe@email.com",
+                "+61412345679", "A7654321", LocalDate.of(1992, 3, 10));
+        when(flightService.getFlightsById(List.of("FL001"))).thenReturn(List.of(testFlight));
+        when(flightService.reserveSeatsOnLegs(List.of(testFlight), SeatClass.ECONOMY, 2)).thenReturn(Optional.empty());
+        when(seatAllocationService.allocateSeats(testFlight, SeatClass.ECONOMY, 2)).thenReturn(List.of("12A", "12B"));
+        when(passengerService.createPassenger(any(Passenger.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(flightService.getPrice(testFlight, SeatClass.ECONOMY)).thenReturn(new BigDecimal("199.99"));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<Booking> result = bookingService.createGroupBooking(FlightType.ONE_WAY, "FL001", null,
+                SeatClass.ECONOMY, List.of(testPassenger, second));
+
+        // Assert
+        assertThat(result).hasSize(2);
+        assertThat(result).extracting(Booking::getSeatNumber).containsExactly("12A", "12B");
+        assertThat(result).extracting(booking -> booking.getPassenger().getFirstName()).containsExactly("John", "Jane");
+        assertThat(result).extracting(Booking::getId).doesNotHaveDuplicates();
+        assertThat(result).allMatch(booking -> booking.getStatus() == BookingStatus.CONFIRMED);
+
+        verify(flightService, times(1)).reserveSeatsOnLegs(List.of(testFlight), SeatClass.ECONOMY, 2);
+        verify(seatAllocationService, never()).allocateSeat(any(Flight.class), any(SeatClass.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createGroupBooking_Failure_NotEnoughSeatsForWholeGroup() {
+        // Arrange
+        when(flightService.getFlightsById(List.of("FL001"))).thenReturn(List.of(testFlight));
+        when(flightService.reserveSeatsOnLegs(List.of(testFlight), SeatClass.FIRST_CLASS, 3)).thenReturn(Optional.of("FL001"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createGroupBooking(FlightType.ONE_WAY, "FL001", null,
+                SeatClass.FIRST_CLASS, List.of(testPassenger, testPassenger, testPassenger)))
+                .isInstanceOf(NoSeatsAvailableException.class)
+                .hasMessage("No available First Class seats on flight FL001");
+
+        verify(seatAllocationService, never()).allocateSeats(any(Flight.class), any(SeatClass.class), anyInt());
+        verify(bookingRepository, never()).saveAll(anyList());
     }
 
     @Test
     void createBooking_Failure_NoSeatsAvailable() {
         // Arrange
-        when(flightService.hasAvailableSeats("FL001", SeatClass.ECONOMY)).thenReturn(false);
+        when(flightService.getFlightsById(List.of("FL001"))).thenReturn(List.of(testFlight));
+        when(flightService.reserveSeatsOnLegs(List.of(testFlight), SeatClass.ECONOMY, 1)).thenReturn(Optional.of("FL001"));
 
         // Act & Assert
         assertThatThrownBy(() -> bookingService.createBooking(FlightType.ONE_WAY, "FL001", null,
@@ -131,7 +190,24 @@ class BookingServiceTest {
                 .isInstanceOf(NoSeatsAvailableException.class)
                 .hasMessage("No available Economy seats on flight FL001");
 
-        verify(flightService, never()).updateAvailableSeats(anyString(), any(SeatClass.class), anyInt());
+        verify(passengerService, never()).createPassenger(any(Passenger.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_Failure_NoSeatsAvailableOnReturnFlight() {
+        // Arrange
+        Flight returnFlight = new Flight();
+        returnFlight.setId("FL025");
+        when(flightService.getFlightsById(List.of("FL001", "FL025"))).thenReturn(List.of(testFlight, returnFlight));
+        when(flightService.reserveSeatsOnLegs(List.of(testFlight, returnFlight), SeatClass.ECONOMY, 1)).thenReturn(Optional.of("FL025"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createBooking(FlightType.RETURN, "FL001", "FL025",
+                SeatClass.ECONOMY, testPassenger))
+                .isInstanceOf(NoSeatsAvailableException.class)
+                .hasMessage("No available Economy seats on return flight FL025");
+
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -140,13 +216,15 @@ class BookingServiceTest {
         // Arrange
         when(bookingRepository.findById("BK12345678")).thenReturn(Optional.of(testBooking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(flightService.getFlightsById(List.of("FL001"))).thenReturn(List.of(testFlight));
 
         // Act
         bookingService.cancelBooking("BK12345678");
 
         // Assert
         assertThat(testBooking.getStatus()).isEqualTo(BookingStatus.CANCELLED);
-        verify(flightService).increaseAvailableSeats("FL001", SeatClass.ECONOMY, 1);
+        verify(flightService).increaseAvailableSeats(testFlight, SeatClass.ECONOMY, 1);
+        verify(seatAllocationService).releaseSeat("FL001", "12A");
         verify(bookingRepository).save(testBooking);
     }
 
@@ -160,7 +238,7 @@ class BookingServiceTest {
                 .isInstanceOf(BookingNotFoundException.class)
                 .hasMessage("Booking with ID INVALID_ID does not exist");
 
-        verify(flightService, never()).increaseAvailableSeats(anyString(), any(SeatClass.class), anyInt());
+        verify(flightService, never()).increaseAvailableSeats(any(Flight.class), any(SeatClass.class), anyInt());
     }
 
     @Test
@@ -174,7 +252,7 @@ class BookingServiceTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("Booking is already cancelled");
 
-        verify(flightService, never()).increaseAvailableSeats(anyString(), any(SeatClass.class), anyInt());
+        verify(flightService, never()).increaseAvailableSeats(any(Flight.class), any(SeatClass.class), anyInt());
     }
 
     @Test
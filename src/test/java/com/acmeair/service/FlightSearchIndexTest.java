@@ -0,0 +1,171 @@
+package com.acmeair.service;
+
+import com.acmeair.dto.FlightView;
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import com.acmeair.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightSearchIndexTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private FlightSearchIndex flightSearchIndex;
+
+    private LocalDate travelDate;
+
+    @BeforeEach
+    void setUp() {
+        flightSearchIndex = new FlightSearchIndex(flightRepository, true);
+        travelDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+    }
+
+    private FlightView flight(String id, String origin, String destination, int hour, String economyPrice, boolean direct) {
+        LocalDateTime departure = travelDate.atTime(hour, 0);
+        return FlightView.of(new Flight(
+                id, "AC" + id.substring(2), origin, destination,
+                departure, departure.plusMinutes(90),
+                "Boeing 737",
+                new BigDecimal(economyPrice), new BigDecimal("299.99"),
+                new BigDecimal("599.99"), new BigDecimal("999.99"),
+                120, 24, 16, 4,
+                120, 24, 16, 4,
+                direct, direct ? 0 : 1
+        ));
+    }
+
+    private void loadDefaultFlights() {
+        when(flightRepository.findFlightViewsDepartingFrom(any())).thenReturn(List.of(
+                flight("FL001", "SYD", "MEL", 6, "199.99", true),
+                flight("FL002", "SYD", "MEL", 9, "149.99", false),
+                flight("FL003", "SYD", "MEL", 12, "249.99", true),
+                flight("FL004", "SYD", "MEL", 18, "179.99", true),
+                flight("FL005", "MEL", "SYD", 8, "189.99", true)
+        ));
+        flightSearchIndex.reload();
+    }
+
+    @Test
+    void covers_Failure_FalseUntilLoadedOrWhenDisabled() {
+        // Arrange
+        FlightSearchIndex disabledIndex = new FlightSearchIndex(flightRepository, false);
+
+        // Act
+        disabledIndex.reload();
+
+        // Assert
+        assertThat(flightSearchIndex.covers(travelDate)).isFalse();
+        assertThat(disabledIndex.covers(travelDate)).isFalse();
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void search_Success_ReturnsRouteAndDayOrderedByDeparture() {
+        // Arrange
+        loadDefaultFlights();
+
+        // Act
+        Page<FlightView> result = flightSearchIndex.search("SYD", "MEL", travelDate, null, null, null,
+                PageRequest.of(0, 10, Sort.by("departureTime")));
+
+        // Assert
+        assertThat(flightSearchIndex.covers(travelDate)).isTrue();
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContent()).extracting(FlightView::id)
+                .containsExactly("FL001", "FL002", "FL003", "FL004");
+    }
+
+    @Test
+    void search_Success_AppliesPriceAndDirectFiltersSortedByPriceDescending() {
+        // Arrange
+        loadDefaultFlights();
+
+        // Act
+        Page<FlightView> result = flightSearchIndex.search("SYD", "MEL", travelDate,
+                new BigDecimal("150.00"), new BigDecimal("249.99"), true,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "economyPrice")));
+
+        // Assert
+        assertThat(result.getContent()).extracting(FlightView::id).containsExactly("FL003", "FL001", "FL004");
+    }
+
+    @Test
+    void search_Success_PaginatesWithTotalsFromSinglePass() {
+        // Arrange
+        loadDefaultFlights();
+
+        // Act
+        Page<FlightView> result = flightSearchIndex.search("SYD", "MEL", travelDate, null, null, null,
+                PageRequest.of(1, 3, Sort.by("departureTime")));
+
+        // Assert
+        assertThat(result.getContent()).extracting(FlightView::id).containsExactly("FL004");
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        assertThat(result.isLast()).isTrue();
+    }
+
+    @Test
+    void search_Success_ReturnsEmptyPageForUnknownRoute() {
+        // Arrange
+        loadDefaultFlights();
+
+        // Act
+        Page<FlightView> result = flightSearchIndex.search("SYD", "PER", travelDate, null, null, null,
+                PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getTotalElements()).isZero();
+    }
+
+    @Test
+    void onSeatsChanged_Success_UpdatesAvailabilityWithoutReload() {
+        // Arrange
+        loadDefaultFlights();
+
+        // Act
+        flightSearchIndex.onSeatsChanged("FL001", SeatClass.BUSINESS, -2);
+
+        // Assert
+        FlightView updated = flightSearchIndex.search("SYD", "MEL", travelDate, null, null, null,
+                PageRequest.of(0, 1, Sort.by("departureTime"))).getContent().get(0);
+        assertThat(updated.businessAvailable()).isEqualTo(14);
+        assertThat(updated.version()).isEqualTo(1);
+        verify(flightRepository, times(1)).findFlightViewsDepartingFrom(any());
+    }
+
+    @Test
+    void reload_Success_KeepsNewerInMemoryVersion() {
+        // Arrange
+        loadDefaultFlights();
+        flightSearchIndex.onSeatsChanged("FL001", SeatClass.ECONOMY, -1);
+
+        // Act - The reload reads a row that predates the committed change
+        flightSearchIndex.reload();
+
+        // Assert
+        FlightView reloaded = flightSearchIndex.search("SYD", "MEL", travelDate, null, null, null,
+                PageRequest.of(0, 1, Sort.by("departureTime"))).getContent().get(0);
+        assertThat(reloaded.economyAvailable()).isEqualTo(119);
+    }
+}
@@ -1,19 +1,43 @@
 package com.acmeair.service;
 
+import com.acmeair.dto.FlightResponseDto;
+import com.acmeair.dto.FlightSearchResponse;
+import com.acmeair.dto.FlightView;
 import com.acmeair.exception.FlightNotFoundException;
+import com.acmeair.exception.NoSeatsAvailableException;
+import com.acmeair.exception.SearchTimeoutException;
 import com.acmeair.model.Flight;
+import com.acmeair.model.FlightType;
 import com.acmeair.model.SeatClass;
 import com.acmeair.repository.FlightRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,13 +49,29 @@ class FlightServiceTest {
     @Mock
     private FlightRepository flightRepository;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SeatInventoryService seatInventoryService;
+
+    private FlightDetailsCache flightDetailsCache;
+
+    private FlightSearchCache flightSearchCache;
+
     private FlightService flightService;
 
     private Flight testFlight;
 
     @BeforeEach
     void setUp() {
+        seatInventoryService = new SeatInventoryService(flightRepository, false);
+        flightSearchCache = new FlightSearchCache(true, 1000, Duration.ofMinutes(5));
+        flightDetailsCache = new FlightDetailsCache(flightRepository, seatInventoryService,
+                new ObjectMapper().findAndRegisterModules(), 1000, Duration.ofMinutes(5));
+        flightService = new FlightService(flightRepository, seatInventoryService,
+                new FlightSearchIndex(flightRepository, false), flightDetailsCache, flightSearchCache,
+                transactionManager, Duration.ofSeconds(5));
+
         testFlight = new Flight(
                 "FL001", "AC101", "SYD", "MEL",
                 LocalDateTime.of(2025, 8, 15, 6, 0),
@@ -74,6 +114,18 @@ class FlightServiceTest {
         verify(flightRepository).findById("INVALID_ID");
     }
 
+    @Test
+    void getFlightsById_Failure_ThrowsForMissingLeg() {
+        // Arrange
+        when(flightRepository.findAllByIdInOrder(List.of("FL001", "INVALID_ID"))).thenReturn(Arrays.asList(testFlight, null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> flightService.getFlightsById(List.of("FL001", "INVALID_ID")))
+                .isInstanceOf(FlightNotFoundException.class)
+                .hasMessage("Flight with ID INVALID_ID does not exist");
+        verify(flightRepository, never()).findById(any());
+    }
+
     @Test
     void hasAvailableSeats_Success_ReturnsTrueWhenSeatsAvailable() {
         // Arrange
@@ -127,31 +179,388 @@ class FlightServiceTest {
     }
 
     @Test
-    void updateAvailableSeats_Success_ReducesAvailableSeats() {
+    void getFlightDetails_Success_ServesRepeatReadsFromCache() {
         // Arrange
         when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
-        when(flightRepository.save(any(Flight.class))).thenReturn(testFlight);
 
         // Act
-        flightService.updateAvailableSeats("FL001", SeatClass.ECONOMY, 2);
+        FlightDetailsCache.FlightDetails first = flightService.getFlightDetails("FL001");
+        FlightDetailsCache.FlightDetails second = flightService.getFlightDetails("FL001");
 
         // Assert
-        assertThat(testFlight.getEconomyAvailable()).isEqualTo(118); // 120 - 2
-        verify(flightRepository).save(testFlight);
+        assertThat(second).isSameAs(first);
+        assertThat(first.flight().getId()).isEqualTo("FL001");
+        assertThat(first.etag()).matches("^\"[0-9a-f]{32}\"$");
+        verify(flightRepository, times(1)).findById("FL001");
     }
 
     @Test
-    void increaseAvailableSeats_Success_IncreasesAvailableSeats() {
+    void getFlightDetails_Success_SeatChangeEvictsEntryAndChangesEtag() {
+        // Arrange
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+        when(flightRepository.reserveSeats("FL001", SeatClass.ECONOMY, 1)).thenAnswer(invocation -> {
+            testFlight.setEconomyAvailable(testFlight.getEconomyAvailable() - 1);
+            return 1;
+        });
+        FlightDetailsCache.FlightDetails before = flightService.getFlightDetails("FL001");
+
+        // Act
+        flightService.reserveSeats(testFlight, SeatClass.ECONOMY, 1);
+        FlightDetailsCache.FlightDetails after = flightService.getFlightDetails("FL001");
+
+        // Assert
+        assertThat(after.flight().getTotalAvailableSeats()).isEqualTo(before.flight().getTotalAvailableSeats() - 1);
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void getFlightDetails_Success_WriteBehindShowsCountersWithoutTouchingEntity() {
         // Arrange
-        testFlight.setEconomyAvailable(118); // Start with reduced seats
+        SeatInventoryService writeBehindInventory = new SeatInventoryService(flightRepository, true);
+        FlightDetailsCache writeBehindDetails = new FlightDetailsCache(flightRepository, writeBehindInventory,
+                new ObjectMapper().findAndRegisterModules(), 1000, Duration.ofMinutes(5));
         when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
-        when(flightRepository.save(any(Flight.class))).thenReturn(testFlight);
+        writeBehindInventory.tryReserve("FL001", SeatClass.BUSINESS, 2);
+
+        // Act
+        FlightDetailsCache.FlightDetails details = writeBehindDetails.get("FL001");
+
+        // Assert
+        assertThat(details.flight().getSeats().getBusiness().getAvailableSeats()).isEqualTo(14);
+        assertThat(details.flight().getTotalAvailableSeats()).isEqualTo(162);
+        assertThat(testFlight.getBusinessAvailable()).isEqualTo(16);
+    }
+
+    @Test
+    void getFlightDetails_Failure_UnknownFlightIsNotCached() {
+        // Arrange
+        when(flightRepository.findById("FL999")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> flightService.getFlightDetails("FL999"))
+                .isInstanceOf(FlightNotFoundException.class);
+        assertThatThrownBy(() -> flightService.getFlightDetails("FL999"))
+                .isInstanceOf(FlightNotFoundException.class);
+        verify(flightRepository, times(2)).findById("FL999");
+    }
+
+    @Test
+    void updateAvailableSeats_Success_ReservesWithConditionalUpdate() {
+        // Arrange
+        when(flightRepository.reserveSeats("FL001", SeatClass.ECONOMY, 2)).thenReturn(1);
+
+        // Act
+        flightService.updateAvailableSeats(testFlight, SeatClass.ECONOMY, 2);
+
+        // Assert
+        verify(flightRepository).reserveSeats("FL001", SeatClass.ECONOMY, 2);
+        verify(flightRepository, never()).save(any(Flight.class));
+    }
+
+    @Test
+    void updateAvailableSeats_Failure_ThrowsWhenNotEnoughSeats() {
+        // Arrange
+        when(flightRepository.reserveSeats("FL001", SeatClass.FIRST_CLASS, 5)).thenReturn(0);
+        when(flightRepository.existsById("FL001")).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> flightService.updateAvailableSeats(testFlight, SeatClass.FIRST_CLASS, 5))
+                .isInstanceOf(NoSeatsAvailableException.class)
+                .hasMessage("No available First Class seats on flight FL001");
+    }
+
+    @Test
+    void increaseAvailableSeats_Success_IncreasesAvailableSeats() {
+        // Act
+        flightService.increaseAvailableSeats(testFlight, SeatClass.ECONOMY, 1);
+
+        // Assert
+        verify(flightRepository).releaseSeats("FL001", SeatClass.ECONOMY, 1);
+        verify(flightRepository, never()).save(any(Flight.class));
+    }
+
+    @Test
+    void searchFlights_Success_AnswersFromInMemoryIndexWhenEnabled() {
+        // Arrange
+        LocalDate travelDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        testFlight.setDepartureTime(travelDate.atTime(6, 0));
+        testFlight.setArrivalTime(travelDate.atTime(7, 30));
+        FlightSearchIndex flightSearchIndex = new FlightSearchIndex(flightRepository, true);
+        when(flightRepository.findFlightViewsDepartingFrom(any())).thenReturn(List.of(FlightView.of(testFlight)));
+        flightSearchIndex.reload();
+        FlightService indexedFlightService = new FlightService(flightRepository, seatInventoryService, flightSearchIndex,
+                flightDetailsCache, flightSearchCache,
+                transactionManager, Duration.ofSeconds(5));
+
+        // Act
+        FlightSearchResponse result = indexedFlightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                travelDate, null, null, null, null, 0, 10, "departureTime", "asc");
+
+        // Assert
+        assertThat(result.getTotalResults()).isEqualTo(1);
+        assertThat(result.getOutboundFlights()).extracting(FlightResponseDto::getId).containsExactly("FL001");
+        verify(flightRepository, never()).findFlightViews(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchFlights_Success_RunsReturnLegsConcurrently() {
+        // Arrange - Each leg waits until the other has started, so a sequential search would time out
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        CountDownLatch bothLegsStarted = new CountDownLatch(2);
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    bothLegsStarted.countDown();
+                    assertThat(bothLegsStarted.await(2, TimeUnit.SECONDS)).isTrue();
+                    String origin = invocation.getArgument(0);
+                    return new PageImpl<>(origin.equals("SYD") ? List.of(FlightView.of(testFlight)) : List.of(),
+                            invocation.getArgument(7), origin.equals("SYD") ? 1 : 0);
+                });
+
+        // Act
+        FlightSearchResponse result = flightService.searchFlights(FlightType.RETURN, "SYD", "MEL",
+                departureDate, departureDate.plusDays(3), null, null, null, 0, 10, "departureTime", "asc");
+
+        // Assert
+        assertThat(result.getOutboundFlights()).extracting(FlightResponseDto::getId).containsExactly("FL001");
+        assertThat(result.getReturnFlights()).isEmpty();
+        verify(flightRepository, times(2)).findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchFlights_Failure_ThrowsWhenLegExceedsTimeout() {
+        // Arrange
+        FlightService impatientFlightService = new FlightService(flightRepository, seatInventoryService,
+                new FlightSearchIndex(flightRepository, false), flightDetailsCache, flightSearchCache,
+                transactionManager, Duration.ofMillis(50));
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(500);
+                    return Page.empty(invocation.getArgument(7));
+                });
+
+        // Act & Assert
+        assertThatThrownBy(() -> impatientFlightService.searchFlights(FlightType.RETURN, "SYD", "MEL",
+                departureDate, departureDate.plusDays(3), null, null, null, 0, 10, "departureTime", "asc"))
+                .isInstanceOf(SearchTimeoutException.class)
+                .hasMessage("Searching outbound flights took longer than 50 ms");
+    }
+
+    @Test
+    void searchFlights_Success_RunsLegQueriesWithLegTimeout() {
+        // Arrange
+        FlightService impatientFlightService = new FlightService(flightRepository, seatInventoryService,
+                new FlightSearchIndex(flightRepository, false), flightDetailsCache, flightSearchCache,
+                transactionManager, Duration.ofMillis(1500));
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> Page.empty(invocation.getArgument(7)));
+
+        // Act
+        impatientFlightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                departureDate, null, null, null, null, 0, 10, "departureTime", "asc");
+
+        // Assert - Transaction timeouts are whole seconds, so the leg timeout is rounded up
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly() && definition.getTimeout() == 2));
+    }
+
+    @Test
+    void searchFlights_Failure_CancelsReturnLegWhenOutboundLegFails() {
+        // Arrange - Each leg's canceller records the leg's thread; the return leg only ends once it has been cancelled
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        Set<Thread> cancelledLegs = ConcurrentHashMap.newKeySet();
+        CountDownLatch returnLegStarted = new CountDownLatch(1);
+        AtomicReference<Thread> returnLeg = new AtomicReference<>();
+        when(flightRepository.queryCanceller()).thenAnswer(invocation -> {
+            Thread leg = Thread.currentThread();
+            return (Runnable) () -> cancelledLegs.add(leg);
+        });
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    if (invocation.getArgument(0).equals("SYD")) {
+                        assertThat(returnLegStarted.await(2, TimeUnit.SECONDS)).isTrue();
+                        throw new IllegalStateException("Outbound query failed");
+                    }
+                    returnLeg.set(Thread.currentThread());
+                    returnLegStarted.countDown();
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+                    while (!cancelledLegs.contains(Thread.currentThread()) && System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    throw new IllegalStateException("Statement cancelled");
+                });
+
+        // Act & Assert
+        assertThatThrownBy(() -> flightService.searchFlights(FlightType.RETURN, "SYD", "MEL",
+                departureDate, departureDate.plusDays(3), null, null, null, 0, 10, "departureTime", "asc"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Outbound query failed");
+        assertThat(cancelledLegs).contains(returnLeg.get());
+    }
+
+    @Test
+    void searchFlights_Success_SharedCachedLegSurvivesAnotherSearchGivingUpOnIt() throws Exception {
+        // Arrange - Both searches share the return leg; the first search's outbound leg fails while that leg loads
+        LocalDate failingDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        LocalDate departureDate = failingDate.plusDays(1);
+        LocalDate returnDate = failingDate.plusDays(3);
+        CountDownLatch returnLegStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    LocalDateTime startOfDay = invocation.getArgument(2);
+                    if (startOfDay.toLocalDate().equals(failingDate)) {
+                        throw new IllegalStateException("Outbound query failed");
+                    }
+                    if (startOfDay.toLocalDate().equals(returnDate)) {
+                        returnLegStarted.countDown();
+                    }
+                    assertThat(release.await(2, TimeUnit.SECONDS)).isTrue();
+                    return new PageImpl<>(List.of(FlightView.of(testFlight)), invocation.getArgument(7), 1);
+                });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        FlightSearchResponse result;
+        try {
+            Future<FlightSearchResponse> waiting = executor.submit(() -> flightService.searchFlights(FlightType.RETURN,
+                    "SYD", "MEL", departureDate, returnDate, null, null, null, 0, 10, "departureTime", "asc"));
+            assertThat(returnLegStarted.await(2, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            assertThatThrownBy(() -> flightService.searchFlights(FlightType.RETURN, "SYD", "MEL",
+                    failingDate, returnDate, null, null, null, 0, 10, "departureTime", "asc"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Outbound query failed");
+            release.countDown();
+            result = waiting.get(2, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(result.getReturnFlights()).extracting(FlightResponseDto::getId).containsExactly("FL001");
+        verify(flightRepository, times(3)).findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchFlights_Failure_PropagatesLegValidationError() {
+        // Arrange
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+
+        // Act & Assert
+        assertThatThrownBy(() -> flightService.searchFlights(FlightType.RETURN, "SYD", "MEL",
+                departureDate, departureDate.plusDays(3), null, null, null, 0, 10, "aircraft", "asc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid sort field: aircraft");
+    }
+
+    @Test
+    void searchFlights_Success_RepeatedQueryIsServedFromCache() {
+        // Arrange
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(FlightView.of(testFlight)), invocation.getArgument(7), 1));
+
+        // Act - The second search differs only in how the same price bound and the direct filter are written
+        FlightSearchResponse first = flightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                departureDate, null, new BigDecimal("150"), null, null, 0, 10, "price", "asc");
+        FlightSearchResponse second = flightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                departureDate, null, new BigDecimal("150.00"), null, false, 0, 10, "economyPrice", "ASC");
+
+        // Assert
+        assertThat(second.getOutboundFlights()).extracting(FlightResponseDto::getId)
+                .isEqualTo(first.getOutboundFlights().stream().map(FlightResponseDto::getId).toList());
+        verify(flightRepository, times(1)).findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchFlights_Success_SeatChangeInvalidatesCachedPartition() {
+        // Arrange
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        testFlight.setDepartureTime(departureDate.atTime(6, 0));
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(FlightView.of(testFlight)), invocation.getArgument(7), 1));
+        when(flightRepository.reserveSeats("FL001", SeatClass.ECONOMY, 1)).thenAnswer(invocation -> {
+            testFlight.setEconomyAvailable(testFlight.getEconomyAvailable() - 1);
+            return 1;
+        });
+        FlightSearchResponse before = flightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                departureDate, null, null, null, null, 0, 10, "departureTime", "asc");
+
+        // Act
+        flightService.reserveSeats(testFlight, SeatClass.ECONOMY, 1);
+        FlightSearchResponse after = flightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                departureDate, null, null, null, null, 0, 10, "departureTime", "asc");
+
+        // Assert
+        assertThat(after.getOutboundFlights().get(0).getTotalAvailableSeats())
+                .isEqualTo(before.getOutboundFlights().get(0).getTotalAvailableSeats() - 1);
+        verify(flightRepository, times(2)).findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchFlights_Success_SeatChangeDuringFirstLoadInvalidatesPartition() throws Exception {
+        // Arrange
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        testFlight.setDepartureTime(departureDate.atTime(6, 0));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await(2, TimeUnit.SECONDS);
+                    return new PageImpl<>(List.of(FlightView.of(testFlight)), invocation.getArgument(7), 1);
+                });
+        when(flightRepository.reserveSeats("FL001", SeatClass.ECONOMY, 1)).thenReturn(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        try {
+            Future<FlightSearchResponse> first = executor.submit(() -> flightService.searchFlights(FlightType.ONE_WAY,
+                    "SYD", "MEL", departureDate, null, null, null, null, 0, 10, "departureTime", "asc"));
+            assertThat(loading.await(2, TimeUnit.SECONDS)).isTrue();
+            flightService.reserveSeats(testFlight, SeatClass.ECONOMY, 1);
+            release.countDown();
+            first.get();
+        } finally {
+            executor.shutdown();
+        }
+        flightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                departureDate, null, null, null, null, 0, 10, "departureTime", "asc");
+
+        // Assert
+        verify(flightRepository, times(2)).findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchFlights_Success_ConcurrentMissesIssueOneQuery() throws Exception {
+        // Arrange
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightRepository.findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    release.await(2, TimeUnit.SECONDS);
+                    return new PageImpl<>(List.of(FlightView.of(testFlight)), invocation.getArgument(7), 1);
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
 
         // Act
-        flightService.increaseAvailableSeats("FL001", SeatClass.ECONOMY, 1);
+        List<Future<FlightSearchResponse>> searches = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                searches.add(executor.submit(() -> flightService.searchFlights(FlightType.ONE_WAY, "SYD", "MEL",
+                        departureDate, null, null, null, null, 0, 10, "departureTime", "asc")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<FlightSearchResponse> search : searches) {
+                assertThat(search.get().getTotalResults()).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdown();
+        }
 
         // Assert
-        assertThat(testFlight.getEconomyAvailable()).isEqualTo(119); // 118 + 1
-        verify(flightRepository).save(testFlight);
+        verify(flightRepository, times(1)).findFlightViews(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
     }
-}
\ No newline at end of file
+}
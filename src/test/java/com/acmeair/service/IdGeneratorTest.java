@@ -0,0 +1,160 @@
+package com.acmeair.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IdGeneratorTest {
+
+    private static final long NOW = IdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    @Test
+    void next_Success_RendersPrefixedFixedWidthId() {
+        // Arrange
+        IdGenerator idGenerator = new IdGenerator(7, () -> NOW);
+
+        // Act
+        String id = idGenerator.next("BK");
+
+        // Assert
+        assertThat(id).hasSize(15).startsWith("BK").matches("^BK[0-9A-HJKMNP-TV-Z]{13}$");
+    }
+
+    @Test
+    void next_Success_StringOrderFollowsCreationOrder() {
+        // Arrange
+        long[] clock = {NOW};
+        IdGenerator idGenerator = new IdGenerator(3, () -> clock[0]);
+
+        // Act
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock[0] += 1;
+            }
+            ids.add(idGenerator.next("P"));
+        }
+
+        // Assert
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void nextId_Success_EncodesNodeAndBorrowsNextMillisecondWhenSequenceIsExhausted() {
+        // Arrange
+        IdGenerator idGenerator = new IdGenerator(5, () -> NOW);
+        int perMillisecond = 1 << IdGenerator.SEQUENCE_BITS;
+
+        // Act
+        long first = idGenerator.nextId();
+        for (int i = 1; i < perMillisecond; i++) {
+            idGenerator.nextId();
+        }
+        long overflow = idGenerator.nextId();
+
+        // Assert
+        assertThat((first >>> IdGenerator.SEQUENCE_BITS) & IdGenerator.MAX_NODE).isEqualTo(5);
+        assertThat(first >>> (IdGenerator.NODE_BITS + IdGenerator.SEQUENCE_BITS)).isEqualTo(NOW - IdGenerator.EPOCH_MILLIS);
+        assertThat(overflow >>> (IdGenerator.NODE_BITS + IdGenerator.SEQUENCE_BITS)).isEqualTo(NOW - IdGenerator.EPOCH_MILLIS + 1);
+        assertThat(overflow).isGreaterThan(first);
+    }
+
+    @Test
+    void nextId_Success_DoesNotGoBackwardsWhenClockDoes() {
+        // Arrange
+        long[] clock = {NOW};
+        IdGenerator idGenerator = new IdGenerator(0, () -> clock[0]);
+        long before = idGenerator.nextId();
+
+        // Act
+        clock[0] -= 5_000;
+        long after = idGenerator.nextId();
+
+        // Assert
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void constructor_Failure_RejectsNodeIdOutOfRange() {
+        // Act & Assert
+        assertThatThrownBy(() -> new IdGenerator(IdGenerator.MAX_NODE + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("acme-air.ids.node-id must be between 0 and 1023");
+    }
+
+    @Test
+    void constructor_Failure_RequiresNodeIdOutsideDevProfile() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("virtual-threads");
+
+        // Act & Assert
+        assertThatThrownBy(() -> new IdGenerator(-1, environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("acme-air.ids.node-id must be set");
+    }
+
+    @Test
+    void constructor_Success_PicksRandomNodeIdUnderDevProfile() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(IdGenerator.DEV_PROFILE);
+
+        // Act
+        int nodeId = IdGenerator.randomNode(environment);
+
+        // Assert
+        assertThat(nodeId).isBetween(0, IdGenerator.MAX_NODE);
+    }
+
+    @Test
+    void constructor_Success_ConfiguredNodeIdNeedsNoProfile() {
+        // Arrange
+        IdGenerator idGenerator = new IdGenerator(42, new MockEnvironment());
+
+        // Act
+        long id = idGenerator.nextId();
+
+        // Assert
+        assertThat((id >>> IdGenerator.SEQUENCE_BITS) & IdGenerator.MAX_NODE).isEqualTo(42);
+    }
+
+    @Test
+    void next_Success_UniqueIdsUnderContention() throws Exception {
+        // Arrange
+        IdGenerator idGenerator = new IdGenerator(9);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                List<String> ids = new ArrayList<>();
+                for (int j = 0; j < 5_000; j++) {
+                    ids.add(idGenerator.next("BK"));
+                }
+                return ids;
+            });
+        }
+
+        // Act
+        List<String> allIds = new ArrayList<>();
+        try {
+            for (Future<List<String>> future : executor.invokeAll(tasks)) {
+                allIds.addAll(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(allIds).hasSize(40_000).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,178 @@
+package com.acmeair.service;
+
+import com.acmeair.exception.IdempotencyKeyReusedException;
+import com.acmeair.model.*;
+import com.acmeair.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+
+    private Booking testBooking;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, bookingService, transactionManager,
+                new ObjectMapper(), Duration.ofHours(24), Duration.ofSeconds(1), 1000);
+
+        Passenger passenger = new Passenger("P0000000000001", "John", "Doe", "john.doe@email.com",
+                "+61412345678", "A1234567", LocalDate.of(1990, 5, 15));
+        testBooking = new Booking("BK0000000000001", "FL001", null, passenger,
+                LocalDateTime.now(), BookingStatus.CONFIRMED, SeatClass.ECONOMY,
+                FlightType.ONE_WAY, "12A", null, new BigDecimal("199.99"));
+    }
+
+    @Test
+    void execute_Success_RecordsKeyWithBookingOnFirstAttempt() {
+        // Arrange
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        IdempotencyService.Outcome outcome = idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"),
+                () -> testBooking);
+
+        // Assert
+        assertThat(outcome.booking()).isSameAs(testBooking);
+        assertThat(outcome.replayed()).isFalse();
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getBookingId()).isEqualTo("BK0000000000001");
+        assertThat(saved.getValue().getKeyHash()).hasSize(64);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void execute_Success_RetryIsReplayedFromMemory() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(bookingService.getBookingById("BK0000000000001")).thenReturn(testBooking);
+        idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"), () -> {
+            attempts.incrementAndGet();
+            return testBooking;
+        });
+
+        // Act
+        IdempotencyService.Outcome retry = idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"), () -> {
+            attempts.incrementAndGet();
+            return testBooking;
+        });
+
+        // Assert
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.booking()).isSameAs(testBooking);
+        assertThat(attempts).hasValue(1);
+        verify(idempotencyRecordRepository, times(1)).findById(anyString());
+    }
+
+    @Test
+    void execute_Success_RetryIsReplayedFromPersistedRecord() {
+        // Arrange
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"), () -> testBooking);
+        verify(idempotencyRecordRepository).saveAndFlush(saved.capture());
+
+        IdempotencyService restarted = new IdempotencyService(idempotencyRecordRepository, bookingService,
+                transactionManager, new ObjectMapper(), Duration.ofHours(24), Duration.ofSeconds(1), 1000);
+        when(idempotencyRecordRepository.findById(saved.getValue().getKeyHash())).thenReturn(Optional.of(saved.getValue()));
+        when(bookingService.getBookingById("BK0000000000001")).thenReturn(testBooking);
+
+        // Act
+        IdempotencyService.Outcome retry = restarted.execute("client", "key-1", Map.of("flightId", "FL001"),
+                () -> { throw new AssertionError("booking must not be created twice"); });
+
+        // Assert
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.booking().getId()).isEqualTo("BK0000000000001");
+    }
+
+    @Test
+    void execute_Success_LosingConcurrentInsertReplaysWinner() {
+        // Arrange
+        IdempotencyRecord[] winner = new IdempotencyRecord[1];
+        when(idempotencyRecordRepository.findById(anyString()))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> Optional.of(winner[0]));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord ours = invocation.getArgument(0);
+            winner[0] = new IdempotencyRecord(ours.getKeyHash(), ours.getRequestHash(), "BK0000000000002",
+                    LocalDateTime.now(ZoneOffset.UTC));
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+        Booking winnerBooking = new Booking();
+        winnerBooking.setId("BK0000000000002");
+        when(bookingService.getBookingById("BK0000000000002")).thenReturn(winnerBooking);
+
+        // Act
+        IdempotencyService.Outcome outcome = idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"),
+                () -> testBooking);
+
+        // Assert
+        assertThat(outcome.replayed()).isTrue();
+        assertThat(outcome.booking().getId()).isEqualTo("BK0000000000002");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void execute_Failure_SameKeyWithDifferentRequest() {
+        // Arrange
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"), () -> testBooking);
+
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute("client", "key-1", Map.of("flightId", "FL002"),
+                () -> testBooking))
+                .isInstanceOf(IdempotencyKeyReusedException.class)
+                .hasMessage("Idempotency key was already used with a different request body");
+    }
+
+    @Test
+    void execute_Success_FailedAttemptIsNotRecorded() {
+        // Arrange
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        assertThatThrownBy(() -> idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"),
+                () -> { throw new IllegalStateException("no seats"); }))
+                .isInstanceOf(IllegalStateException.class);
+        IdempotencyService.Outcome retry = idempotencyService.execute("client", "key-1", Map.of("flightId", "FL001"),
+                () -> testBooking);
+
+        // Assert
+        assertThat(retry.replayed()).isFalse();
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+}
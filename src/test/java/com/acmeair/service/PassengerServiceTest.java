@@ -4,6 +4,7 @@ import com.acmeair.model.Passenger;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
@@ -13,6 +14,9 @@ import static org.assertj.core.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class PassengerServiceTest {
 
+    @Spy
+    private IdGenerator idGenerator = new IdGenerator(1);
+
     @InjectMocks
     private PassengerService passengerService;
 
@@ -29,7 +33,7 @@ class PassengerServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isNotNull();
         assertThat(result.getId()).startsWith("P");
-        assertThat(result.getId()).hasSize(9); // P + 8 characters
+        assertThat(result.getId()).hasSize(14); // P + 13 characters
         assertThat(result.getFirstName()).isEqualTo("John");
         assertThat(result.getLastName()).isEqualTo("Doe");
         assertThat(result.getEmail()).isEqualTo("john.doe@email.com");
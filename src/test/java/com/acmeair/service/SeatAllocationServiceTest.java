@@ -1,28 +1,50 @@
 package com.acmeair.service;
 
+import com.acmeair.exception.NoSeatsAvailableException;
 import com.acmeair.model.Flight;
 import com.acmeair.model.SeatClass;
+import com.acmeair.repository.BookingRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SeatAllocationServiceTest {
 
-    @InjectMocks
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private static final String SEAT_CLAIM_VIOLATION = "Unique index or primary key violation: "
+            + "\"PUBLIC.PK_BOOKING_SEATS ON PUBLIC.BOOKING_SEATS(FLIGHT_ID, SEAT_NUMBER)\"";
+
     private SeatAllocationService seatAllocationService;
 
     private Flight testFlight;
 
     @BeforeEach
     void setUp() {
+        seatAllocationService = new SeatAllocationService(bookingRepository, 1000, Duration.ofMinutes(30), 3);
+
+        // Cabins are laid out front to back: First rows 1-2, Business 3-6, Premium Economy 7-10, Economy 11-30
         testFlight = new Flight(
                 "FL001", "AC101", "SYD", "MEL",
                 LocalDateTime.of(2025, 8, 15, 6, 0),
@@ -37,64 +59,194 @@ class SeatAllocationServiceTest {
     }
 
     @Test
-    void allocateSeat_Success_EconomySeatFormat() {
+    void allocateSeat_Success_FirstFitPerCabin() {
+        // Act & Assert
+        assertThat(seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS)).isEqualTo("1A");
+        assertThat(seatAllocationService.allocateSeat(testFlight, SeatClass.BUSINESS)).isEqualTo("3A");
+        assertThat(seatAllocationService.allocateSeat(testFlight, SeatClass.PREMIUM_ECONOMY)).isEqualTo("7A");
+        assertThat(seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY)).isEqualTo("11A");
+        assertThat(seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY)).isEqualTo("11B");
+    }
+
+    @Test
+    void allocateSeat_Success_NeverAssignsTheSameSeatTwice() {
         // Act
-        String seatNumber = seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY);
+        Set<String> seats = new HashSet<>();
+        for (int i = 0; i < 120; i++) {
+            seats.add(seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY));
+        }
 
         // Assert
-        assertThat(seatNumber).isNotNull();
-        assertThat(seatNumber).matches("^(1[0-9]|2[0-9]|3[0-5])[A-F]$"); // Rows 10-35, Seats A-F
-        assertThat(seatNumber.length()).isBetween(3, 4); // e.g., "10A" or "35F"
+        assertThat(seats).hasSize(120);
+        assertThat(seats).allMatch(seat -> seat.matches("^(1[1-9]|2[0-9]|30)[A-F]$"));
     }
 
     @Test
-    void allocateSeat_Success_PremiumEconomySeatFormat() {
+    void allocateSeat_Failure_ThrowsWhenCabinIsFull() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS))
+                .isInstanceOf(NoSeatsAvailableException.class)
+                .hasMessage("No First Class seats left to assign on flight FL001");
+    }
+
+    @Test
+    void allocateSeat_Success_SkipsSeatsOccupiedByExistingBookings() {
+        // Arrange
+        when(bookingRepository.findClaimedSeatNumbers("FL001")).thenReturn(List.of("1A", "1B", "2A"));
+
         // Act
-        String seatNumber = seatAllocationService.allocateSeat(testFlight, SeatClass.PREMIUM_ECONOMY);
+        String seatNumber = seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS);
 
         // Assert
-        assertThat(seatNumber).isNotNull();
-        assertThat(seatNumber).matches("^[6-9][A-F]$"); // Rows 6-9, Seats A-F
-        assertThat(seatNumber.length()).isEqualTo(2); // e.g., "6A" or "9F"
+        assertThat(seatNumber).isEqualTo("2B");
+        verify(bookingRepository, times(1)).findClaimedSeatNumbers("FL001");
+        verify(bookingRepository).claimSeat("FL001", "2B");
     }
 
     @Test
-    void allocateSeat_Success_BusinessSeatFormat() {
+    void allocateSeats_Success_AssignsAdjacentSeatsInOneRow() {
+        // Arrange
+        seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY); // 11A
+
         // Act
-        String seatNumber = seatAllocationService.allocateSeat(testFlight, SeatClass.BUSINESS);
+        List<String> seats = seatAllocationService.allocateSeats(testFlight, SeatClass.ECONOMY, 6);
 
         // Assert
-        assertThat(seatNumber).isNotNull();
-        assertThat(seatNumber).matches("^[3-5][A-D]$"); // Rows 3-5, Seats A-D
-        assertThat(seatNumber.length()).isEqualTo(2); // e.g., "3A" or "5D"
+        assertThat(seats).containsExactly("12A", "12B", "12C", "12D", "12E", "12F");
     }
 
     @Test
-    void allocateSeat_Success_FirstClassSeatFormat() {
+    void allocateSeats_Success_SeatsLargeGroupInFullRowsFirst() {
+        // Arrange
+        seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY); // 11A
+
         // Act
-        String seatNumber = seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS);
+        List<String> seats = seatAllocationService.allocateSeats(testFlight, SeatClass.ECONOMY, 8);
+
+        // Assert
+        assertThat(seats).containsExactly("12A", "12B", "12C", "12D", "12E", "12F", "11B", "11C");
+    }
+
+    @Test
+    void allocateSeats_Failure_ReleasesPartialGroupWhenCabinCannotFitIt() {
+        // Arrange
+        seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS); // 1A
+
+        // Act & Assert
+        assertThatThrownBy(() -> seatAllocationService.allocateSeats(testFlight, SeatClass.FIRST_CLASS, 4))
+                .isInstanceOf(NoSeatsAvailableException.class);
+        assertThat(seatAllocationService.allocateSeats(testFlight, SeatClass.FIRST_CLASS, 3))
+                .containsExactlyInAnyOrder("1B", "2A", "2B");
+    }
+
+    @Test
+    void releaseSeat_Success_MakesSeatAvailableAgain() {
+        // Arrange
+        seatAllocationService.allocateSeat(testFlight, SeatClass.BUSINESS); // 3A
+        seatAllocationService.allocateSeat(testFlight, SeatClass.BUSINESS); // 3B
+
+        // Act
+        seatAllocationService.releaseSeat("FL001", "3A");
 
         // Assert
-        assertThat(seatNumber).isNotNull();
-        assertThat(seatNumber).matches("^[1-2][A-B]$"); // Rows 1-2, Seats A-B
-        assertThat(seatNumber.length()).isEqualTo(2); // e.g., "1A" or "2B"
+        assertThat(seatAllocationService.allocateSeat(testFlight, SeatClass.BUSINESS)).isEqualTo("3A");
     }
 
     @Test
-    void allocateSeat_Success_DifferentSeatsForDifferentClasses() {
+    void allocateSeat_Success_UniqueSeatsUnderContention() throws Exception {
+        // Arrange
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                List<String> seats = new ArrayList<>();
+                for (int j = 0; j < 15; j++) {
+                    seats.add(seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY));
+                }
+                return seats;
+            });
+        }
+
+        // Act
+        List<String> allSeats = new ArrayList<>();
+        try {
+            for (Future<List<String>> future : executor.invokeAll(tasks)) {
+                allSeats.addAll(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(allSeats).hasSize(120).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void retryOnSeatConflict_Success_ResyncsSeatMapAndRetries() {
+        // Arrange
+        seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS); // 1A
+        when(bookingRepository.findClaimedSeatNumbers("FL001")).thenReturn(List.of(), List.of("1B"));
+        List<String> assigned = new ArrayList<>();
+
         // Act
-        String economySeat = seatAllocationService.allocateSeat(testFlight, SeatClass.ECONOMY);
-        String businessSeat = seatAllocationService.allocateSeat(testFlight, SeatClass.BUSINESS);
-        String firstClassSeat = seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS);
+        String seat = seatAllocationService.retryOnSeatConflict(List.of("FL001"), () -> {
+            String next = seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS);
+            assigned.add(next);
+            if (next.equals("1B")) {
+                throw new DataIntegrityViolationException(SEAT_CLAIM_VIOLATION);
+            }
+            return next;
+        });
 
         // Assert
-        assertThat(economySeat).isNotEqualTo(businessSeat);
-        assertThat(economySeat).isNotEqualTo(firstClassSeat);
-        assertThat(businessSeat).isNotEqualTo(firstClassSeat);
-
-        // Verify seat ranges don't overlap
-        assertThat(economySeat.charAt(0)).isIn('1', '2', '3'); // Economy starts with 1, 2, or 3 (10-35)
-        assertThat(businessSeat.charAt(0)).isIn('3', '4', '5'); // Business is 3-5
-        assertThat(firstClassSeat.charAt(0)).isIn('1', '2'); // First class is 1-2
+        assertThat(assigned).containsExactly("1B", "2A");
+        assertThat(seat).isEqualTo("2A");
+    }
+
+    @Test
+    void retryOnSeatConflict_Success_ReturnLegRetriesWhenSeatIsHeldByAnotherBookingsOutboundLeg() {
+        // Arrange
+        Flight outbound = new Flight();
+        outbound.setId("FL025");
+        outbound.setFirstClassTotal(4);
+        seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS); // 1A
+        // Another node's booking holds 1B on FL001 as its outbound seat
+        when(bookingRepository.findClaimedSeatNumbers("FL001")).thenReturn(List.of(), List.of("1A", "1B"));
+        when(bookingRepository.findClaimedSeatNumbers("FL025")).thenReturn(List.of());
+        when(bookingRepository.claimSeat(anyString(), anyString())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals("FL001") && invocation.getArgument(1).equals("1B")) {
+                throw new DataIntegrityViolationException(SEAT_CLAIM_VIOLATION);
+            }
+            return 1;
+        });
+
+        // Act
+        List<String> seats = seatAllocationService.retryOnSeatConflict(List.of("FL025", "FL001"), () -> List.of(
+                seatAllocationService.allocateSeat(outbound, SeatClass.FIRST_CLASS),
+                seatAllocationService.allocateSeat(testFlight, SeatClass.FIRST_CLASS)));
+
+        // Assert
+        assertThat(seats.get(1)).isEqualTo("2A");
+        verify(bookingRepository).claimSeat("FL001", "2A");
+    }
+
+    @Test
+    void retryOnSeatConflict_Failure_RethrowsOtherViolationsWithoutRetrying() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("NULL not allowed for column \"EMAIL\"");
+        List<Integer> attempts = new ArrayList<>();
+
+        // Act & Assert
+        assertThatThrownBy(() -> seatAllocationService.retryOnSeatConflict(List.of("FL001"), () -> {
+            attempts.add(1);
+            throw violation;
+        })).isSameAs(violation);
+        assertThat(attempts).hasSize(1);
     }
-}
\ No newline at end of file
+}
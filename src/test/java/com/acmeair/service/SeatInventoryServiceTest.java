@@ -0,0 +1,311 @@
+package com.acmeair.service;
+
+import com.acmeair.exception.FlightNotFoundException;
+import com.acmeair.model.Flight;
+import com.acmeair.model.SeatClass;
+import com.acmeair.repository.FlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryServiceTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private SeatInventoryService seatInventoryService;
+
+    private Flight testFlight;
+
+    @BeforeEach
+    void setUp() {
+        seatInventoryService = new SeatInventoryService(flightRepository, true);
+
+        testFlight = new Flight(
+                "FL001", "AC101", "SYD", "MEL",
+                LocalDateTime.of(2025, 8, 15, 6, 0),
+                LocalDateTime.of(2025, 8, 15, 7, 30),
+                "Boeing 737",
+                new BigDecimal("199.99"), new BigDecimal("299.99"),
+                new BigDecimal("599.99"), new BigDecimal("999.99"),
+                120, 24, 16, 4,
+                120, 24, 16, 4,
+                true, 0
+        );
+    }
+
+    @Test
+    void tryReserve_Success_LoadsFlightOnceAndDecrementsInMemory() {
+        // Arrange
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+
+        // Act
+        boolean first = seatInventoryService.tryReserve("FL001", SeatClass.BUSINESS, 2);
+        boolean second = seatInventoryService.tryReserve("FL001", SeatClass.BUSINESS, 3);
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(seatInventoryService.getAvailableSeats("FL001", SeatClass.BUSINESS)).isEqualTo(11);
+        verify(flightRepository, times(1)).findById("FL001");
+        verify(flightRepository, never()).adjustAvailableSeats(anyString(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void tryReserve_Failure_RejectsWhenNotEnoughSeats() {
+        // Arrange
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+
+        // Act
+        boolean result = seatInventoryService.tryReserve("FL001", SeatClass.FIRST_CLASS, 5);
+
+        // Assert
+        assertThat(result).isFalse();
+        assertThat(seatInventoryService.getAvailableSeats("FL001", SeatClass.FIRST_CLASS)).isEqualTo(4);
+    }
+
+    @Test
+    void tryReserve_Failure_ThrowsWhenFlightNotFound() {
+        // Arrange
+        when(flightRepository.findById("INVALID_ID")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> seatInventoryService.tryReserve("INVALID_ID", SeatClass.ECONOMY, 1))
+                .isInstanceOf(FlightNotFoundException.class)
+                .hasMessage("Flight with ID INVALID_ID does not exist");
+    }
+
+    @Test
+    void tryReserve_Success_NeverOversellsUnderContention() throws Exception {
+        // Arrange
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+        int threads = 16;
+        int attemptsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                int reserved = 0;
+                for (int j = 0; j < attemptsPerThread; j++) {
+                    if (seatInventoryService.tryReserve("FL001", SeatClass.ECONOMY, 1)) {
+                        reserved++;
+                    }
+                }
+                return reserved;
+            });
+        }
+
+        // Act
+        int totalReserved = 0;
+        try {
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                totalReserved += future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(totalReserved).isEqualTo(120);
+        assertThat(seatInventoryService.getAvailableSeats("FL001", SeatClass.ECONOMY)).isZero();
+    }
+
+    @Test
+    void flush_Success_WritesAccumulatedDeltasOnce() {
+        // Arrange
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+        seatInventoryService.tryReserve("FL001", SeatClass.ECONOMY, 1);
+        seatInventoryService.tryReserve("FL001", SeatClass.ECONOMY, 2);
+        seatInventoryService.release("FL001", SeatClass.BUSINESS, 1);
+
+        // Act
+        seatInventoryService.flush();
+        seatInventoryService.flush();
+
+        // Assert
+        verify(flightRepository, times(1)).adjustAvailableSeats("FL001", -3, 0, 1, 0);
+    }
+
+    @Test
+    void flush_Failure_KeepsDeltasForNextFlush() {
+        // Arrange
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+        when(flightRepository.adjustAvailableSeats("FL001", -1, 0, 0, 0))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(1);
+        seatInventoryService.tryReserve("FL001", SeatClass.ECONOMY, 1);
+
+        // Act
+        seatInventoryService.flush();
+        seatInventoryService.flush();
+
+        // Assert
+        verify(flightRepository, times(2)).adjustAvailableSeats("FL001", -1, 0, 0, 0);
+    }
+
+    @Test
+    void tryReserve_Success_WriteThroughUsesConditionalUpdate() {
+        // Arrange
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        when(flightRepository.reserveSeats("FL001", SeatClass.ECONOMY, 2)).thenReturn(1);
+
+        // Act
+        boolean result = writeThroughInventory.tryReserve("FL001", SeatClass.ECONOMY, 2);
+        writeThroughInventory.flush();
+
+        // Assert
+        assertThat(result).isTrue();
+        verify(flightRepository).reserveSeats("FL001", SeatClass.ECONOMY, 2);
+        verify(flightRepository, never()).adjustAvailableSeats(anyString(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void tryReserve_Failure_WriteThroughRejectsWhenNoRowUpdated() {
+        // Arrange
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        when(flightRepository.reserveSeats("FL001", SeatClass.FIRST_CLASS, 5)).thenReturn(0);
+        when(flightRepository.existsById("FL001")).thenReturn(true);
+
+        // Act
+        boolean result = writeThroughInventory.tryReserve("FL001", SeatClass.FIRST_CLASS, 5);
+
+        // Assert
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void tryReserve_Failure_WriteThroughThrowsWhenFlightNotFound() {
+        // Arrange
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        when(flightRepository.reserveSeats("INVALID_ID", SeatClass.ECONOMY, 1)).thenReturn(0);
+        when(flightRepository.existsById("INVALID_ID")).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> writeThroughInventory.tryReserve("INVALID_ID", SeatClass.ECONOMY, 1))
+                .isInstanceOf(FlightNotFoundException.class)
+                .hasMessage("Flight with ID INVALID_ID does not exist");
+    }
+
+    @Test
+    void getAvailableSeats_Success_WriteThroughReadsRowOnEveryCall() {
+        // Arrange
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        when(flightRepository.reserveSeats("FL001", SeatClass.BUSINESS, 2)).thenReturn(1);
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+        writeThroughInventory.getAvailableSeats("FL001", SeatClass.BUSINESS);
+        writeThroughInventory.tryReserve("FL001", SeatClass.BUSINESS, 2);
+        testFlight.setBusinessAvailable(14);
+
+        // Act
+        int available = writeThroughInventory.getAvailableSeats("FL001", SeatClass.BUSINESS);
+
+        // Assert
+        assertThat(available).isEqualTo(14);
+        verify(flightRepository, times(2)).findById("FL001");
+    }
+
+    @Test
+    void tryReserveAll_Success_WriteThroughReservesEachLegWithItsOwnUpdate() {
+        // Arrange
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        when(flightRepository.reserveSeats("FL001", SeatClass.ECONOMY, 2)).thenReturn(1);
+        when(flightRepository.reserveSeats("FL025", SeatClass.ECONOMY, 2)).thenReturn(1);
+
+        // Act
+        Optional<String> unavailable = writeThroughInventory.tryReserveAll(List.of("FL001", "FL025"), SeatClass.ECONOMY, 2);
+
+        // Assert
+        assertThat(unavailable).isEmpty();
+        verify(flightRepository, times(1)).reserveSeats("FL001", SeatClass.ECONOMY, 2);
+        verify(flightRepository, times(1)).reserveSeats("FL025", SeatClass.ECONOMY, 2);
+        verify(flightRepository, never()).findFlightViewsByIdIn(anyList());
+    }
+
+    @Test
+    void tryReserveAll_Failure_WriteThroughReportsFullLegWhenReservedLegDropsBelowRequest() {
+        // Arrange - FL001 goes from 3 first class seats to 1, fewer than requested, while FL025 only has 1 to start with
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        when(flightRepository.reserveSeats("FL001", SeatClass.FIRST_CLASS, 2)).thenReturn(1);
+        when(flightRepository.reserveSeats("FL025", SeatClass.FIRST_CLASS, 2)).thenReturn(0);
+        when(flightRepository.existsById("FL025")).thenReturn(true);
+
+        // Act
+        Optional<String> unavailable = writeThroughInventory.tryReserveAll(List.of("FL001", "FL025"), SeatClass.FIRST_CLASS, 2);
+
+        // Assert
+        assertThat(unavailable).contains("FL025");
+    }
+
+    @Test
+    void tryReserveAll_Failure_WriteThroughStopsAtFirstLegWithoutSeats() {
+        // Arrange
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        when(flightRepository.reserveSeats("FL001", SeatClass.FIRST_CLASS, 2)).thenReturn(0);
+        when(flightRepository.existsById("FL001")).thenReturn(true);
+
+        // Act
+        Optional<String> unavailable = writeThroughInventory.tryReserveAll(List.of("FL001", "FL025"), SeatClass.FIRST_CLASS, 2);
+
+        // Assert
+        assertThat(unavailable).contains("FL001");
+        verify(flightRepository, never()).reserveSeats("FL025", SeatClass.FIRST_CLASS, 2);
+    }
+
+    @Test
+    void tryReserveAll_Failure_WriteBehindStopsAtFirstLegWithoutSeats() {
+        // Arrange
+        Flight returnFlight = new Flight();
+        returnFlight.setId("FL025");
+        when(flightRepository.findById("FL001")).thenReturn(Optional.of(testFlight));
+        when(flightRepository.findById("FL025")).thenReturn(Optional.of(returnFlight));
+
+        // Act
+        Optional<String> unavailable = seatInventoryService.tryReserveAll(List.of("FL001", "FL025"), SeatClass.BUSINESS, 2);
+
+        // Assert
+        assertThat(unavailable).contains("FL025");
+        assertThat(seatInventoryService.getAvailableSeats("FL001", SeatClass.BUSINESS)).isEqualTo(14);
+        verify(flightRepository, never()).reserveSeats(anyList(), any(SeatClass.class), anyInt());
+    }
+
+    @Test
+    void bindTo_Success_WriteThroughReportsDatabaseTotalsOnly() {
+        // Arrange
+        SeatInventoryService writeThroughInventory = new SeatInventoryService(flightRepository, false);
+        FlightRepository.AvailableSeatTotals totals = mock(FlightRepository.AvailableSeatTotals.class);
+        when(totals.get(any(SeatClass.class))).thenCallRealMethod();
+        when(totals.getEconomy()).thenReturn(240L);
+        when(flightRepository.sumAvailableSeatsDepartingFrom(any(LocalDateTime.class))).thenReturn(totals);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        writeThroughInventory.bindTo(registry);
+
+        // Act
+        writeThroughInventory.refreshAvailableSeatTotals();
+
+        // Assert
+        assertThat(registry.get("acmeair.inventory.seats.available").tag("seat_class", "ECONOMY").gauge().value())
+                .isEqualTo(240.0);
+        assertThat(registry.find("acmeair.inventory.flights.tracked").gauge()).isNull();
+    }
+}
@@ -0,0 +1,112 @@
+package com.acmeair.service;
+
+import com.acmeair.dto.FlightView;
+import com.acmeair.model.Flight;
+import com.acmeair.repository.FlightRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@DisplayName("SyntheticDataGenerator Tests")
+class SyntheticDataGeneratorTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Test
+    @DisplayName("Should load every route and day with the planned number of flights")
+    void shouldLoadFlightsForEveryRouteAndDay() {
+        // Given
+        SyntheticDataGenerator.Plan plan = new SyntheticDataGenerator.Plan(3, 2, 2, 10, 0, FIRST_DAY);
+
+        // When
+        SyntheticDataGenerator.Dataset dataset = new SyntheticDataGenerator(jdbcTemplate).generate(plan);
+
+        // Then
+        assertThat(dataset.flights()).isEqualTo(24);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flights WHERE id LIKE 'GF%'", Integer.class))
+                .isEqualTo(24);
+        for (int route = 0; route < dataset.routes(); route++) {
+            for (int day = 0; day < plan.days(); day++) {
+                LocalDateTime startOfDay = FIRST_DAY.plusDays(day).atStartOfDay();
+                Page<FlightView> flights = flightRepository.findFlightViews(dataset.origin(route), dataset.destination(route),
+                        startOfDay, startOfDay.plusDays(1), null, null, null, PageRequest.of(0, 10));
+                assertThat(flights.getTotalElements()).isEqualTo(2);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should place bookings on distinct seats and reduce availability to match")
+    void shouldPlaceBookingsOnDistinctSeats() {
+        // Given
+        SyntheticDataGenerator.Plan plan = new SyntheticDataGenerator.Plan(2, 1, 2, 10, 25, FIRST_DAY);
+
+        // When
+        SyntheticDataGenerator.Dataset dataset = new SyntheticDataGenerator(jdbcTemplate).generate(plan);
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE id LIKE 'GB%'", Integer.class))
+                .isEqualTo(25);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM passengers WHERE id LIKE 'GP%'", Integer.class))
+                .isEqualTo(25);
+        for (int flight = 0; flight < dataset.flights(); flight++) {
+            Flight loaded = flightRepository.findById(dataset.flightId(flight)).orElseThrow();
+            List<String> seats = jdbcTemplate.queryForList(
+                    "SELECT seat_number FROM bookings WHERE flight_id = ?", String.class, loaded.getId());
+            SeatMap seatMap = SeatMap.forFlight(loaded);
+
+            assertThat(seats).doesNotHaveDuplicates();
+            assertThat(seats).allMatch(seatMap::occupy);
+            assertThat(loaded.getEconomyAvailable()).isEqualTo(loaded.getEconomyTotal() - seats.size());
+            assertThat(jdbcTemplate.queryForList("SELECT seat_number FROM booking_seats WHERE flight_id = ?",
+                    String.class, loaded.getId())).containsExactlyInAnyOrderElementsOf(seats);
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate further airport codes once the known airports run out")
+    void shouldGenerateAirportCodes() {
+        // When
+        List<String> codes = SyntheticDataGenerator.airportCodes(22);
+
+        // Then
+        assertThat(codes).hasSize(22).doesNotHaveDuplicates();
+        assertThat(codes.subList(20, 22)).containsExactly("QAA", "QAB");
+    }
+
+    @Test
+    @DisplayName("Should reject more bookings than there are seats")
+    void shouldRejectMoreBookingsThanSeats() {
+        // Given
+        SyntheticDataGenerator.Plan plan = new SyntheticDataGenerator.Plan(2, 1, 1, 10, 21, FIRST_DAY);
+
+        // When & Then
+        assertThatThrownBy(() -> new SyntheticDataGenerator(jdbcTemplate).generate(plan))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot place 21 bookings on 2 flights with 10 economy seats each");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flights WHERE id LIKE 'GF%'", Integer.class))
+                .isZero();
+    }
+}